@@ -0,0 +1,104 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader;
+
+import net.fabricmc.mappings.Mappings;
+import net.fabricmc.mappings.MappingsProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link FabricMappingResolver} table construction and lookups over
+ * generated mappings of roughly the size of a Minecraft release.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingResolverBenchmark {
+	private static final int CLASSES = 6000;
+	private static final int MEMBERS_PER_CLASS = 8;
+	private static final int LOOKUPS = 1024;
+
+	private Mappings mappings;
+	private FabricMappingResolver resolver;
+	private String[] classNames = new String[LOOKUPS];
+	private String[] methodNames = new String[LOOKUPS];
+	private String[] fieldNames = new String[LOOKUPS];
+	private int index;
+
+	@Setup
+	public void setup() throws IOException {
+		StringBuilder tiny = new StringBuilder("v1\tofficial\tintermediary\tnamed\n");
+		int member = 0;
+
+		for (int c = 0; c < CLASSES; c++) {
+			tiny.append("CLASS\tc").append(c).append("\tnet/minecraft/class_").append(c).append("\tnet/minecraft/Class").append(c).append('\n');
+
+			for (int m = 0; m < MEMBERS_PER_CLASS; m++, member++) {
+				tiny.append("FIELD\tc").append(c).append("\tI\tf").append(m).append("\tfield_").append(member).append("\tfield").append(member).append('\n');
+				tiny.append("METHOD\tc").append(c).append("\t()V\tm").append(m).append("\tmethod_").append(member).append("\tmethod").append(member).append('\n');
+			}
+		}
+
+		mappings = MappingsProvider.readTinyMappings(new ByteArrayInputStream(tiny.toString().getBytes(StandardCharsets.UTF_8)));
+
+		Random random = new Random(42);
+		for (int i = 0; i < LOOKUPS; i++) {
+			int c = random.nextInt(CLASSES);
+			int m = c * MEMBERS_PER_CLASS + random.nextInt(MEMBERS_PER_CLASS);
+			classNames[i] = "net.minecraft.class_" + c;
+			methodNames[i] = "method_" + m;
+			fieldNames[i] = "field_" + m;
+		}
+
+		resolver = new FabricMappingResolver(() -> mappings, "named");
+		resolver.mapClassName("intermediary", classNames[0]);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Measurement(iterations = 20)
+	public String buildTables() {
+		return new FabricMappingResolver(() -> mappings, "named").mapClassName("intermediary", classNames[0]);
+	}
+
+	@Benchmark
+	public String mapClassName() {
+		return resolver.mapClassName("intermediary", classNames[index++ & (LOOKUPS - 1)]);
+	}
+
+	@Benchmark
+	public String mapMethodName() {
+		int i = index++ & (LOOKUPS - 1);
+		return resolver.mapMethodName("intermediary", classNames[i], methodNames[i], "()V");
+	}
+
+	@Benchmark
+	public String mapFieldName() {
+		int i = index++ & (LOOKUPS - 1);
+		return resolver.mapFieldName("intermediary", classNames[i], fieldNames[i], "I");
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.benchmark;
+
+import net.fabricmc.api.EnvType;
+import net.fabricmc.loader.launch.common.FabricLauncherBase;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Minimal launcher which serves classes and resources from the benchmark class path.
+ */
+final class BenchmarkLauncher extends FabricLauncherBase {
+	private static BenchmarkLauncher instance;
+
+	private BenchmarkLauncher() {
+
+	}
+
+	static synchronized void install() {
+		if (instance == null) {
+			instance = new BenchmarkLauncher();
+		}
+	}
+
+	@Override
+	public void propose(URL url) {
+		throw new UnsupportedOperationException("Cannot add " + url + " to the benchmark class path");
+	}
+
+	@Override
+	public EnvType getEnvironmentType() {
+		return EnvType.SERVER;
+	}
+
+	@Override
+	public boolean isClassLoaded(String name) {
+		return false;
+	}
+
+	@Override
+	public InputStream getResourceAsStream(String name) {
+		return getTargetClassLoader().getResourceAsStream(name);
+	}
+
+	@Override
+	public ClassLoader getTargetClassLoader() {
+		return BenchmarkLauncher.class.getClassLoader();
+	}
+
+	@Override
+	public byte[] getClassByteArray(String name) throws IOException {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean isDevelopment() {
+		return false;
+	}
+
+	@Override
+	public String getEntrypoint() {
+		return null;
+	}
+
+	@Override
+	public String getTargetNamespace() {
+		return "intermediary";
+	}
+
+	@Override
+	public Collection<URL> getLoadTimeDependencies() {
+		return Collections.emptyList();
+	}
+}
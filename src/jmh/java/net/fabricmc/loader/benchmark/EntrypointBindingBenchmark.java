@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.benchmark;
+
+import net.fabricmc.loader.api.LanguageAdapterException;
+import net.fabricmc.loader.util.DefaultLanguageAdapter;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Compares calls through method reference entrypoints ("my.Class::method") bound by
+ * {@link DefaultLanguageAdapter} against a direct lambda and the reflective proxy the
+ * adapter falls back to.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EntrypointBindingBenchmark {
+	private static final String TARGET = EntrypointBindingBenchmark.class.getName() + "::increment";
+
+	private IntUnaryOperator direct;
+	private IntUnaryOperator bound;
+	private IntUnaryOperator proxy;
+	private int value;
+
+	static int increment(int value) {
+		return value + 1;
+	}
+
+	@Setup
+	public void setup() throws LanguageAdapterException, NoSuchMethodException {
+		BenchmarkLauncher.install();
+
+		Method method = EntrypointBindingBenchmark.class.getDeclaredMethod("increment", int.class);
+		direct = EntrypointBindingBenchmark::increment;
+		bound = DefaultLanguageAdapter.INSTANCE.create(null, TARGET, IntUnaryOperator.class);
+		proxy = (IntUnaryOperator) Proxy.newProxyInstance(EntrypointBindingBenchmark.class.getClassLoader(), new Class[] { IntUnaryOperator.class },
+			(p, m, args) -> method.invoke(null, args));
+	}
+
+	@Benchmark
+	public int invokeDirect() {
+		return value = direct.applyAsInt(value);
+	}
+
+	@Benchmark
+	public int invokeBound() {
+		return value = bound.applyAsInt(value);
+	}
+
+	@Benchmark
+	public int invokeProxy() {
+		return value = proxy.applyAsInt(value);
+	}
+
+	@Benchmark
+	public IntUnaryOperator create() throws LanguageAdapterException {
+		return DefaultLanguageAdapter.INSTANCE.create(null, TARGET, IntUnaryOperator.class);
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.benchmark;
+
+import net.fabricmc.loader.FabricLoader;
+import net.fabricmc.loader.discovery.ModCandidate;
+import net.fabricmc.loader.discovery.ModCandidateSet;
+import net.fabricmc.loader.metadata.LoaderModMetadata;
+import net.fabricmc.loader.metadata.ModMetadataParser;
+
+import java.io.ByteArrayInputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Generates solvable mod candidate graphs for the resolver benchmarks.
+ *
+ * Every third mod is user-provided (depth 0, one version); the others are nested
+ * at depths 1 to 3 with one to four versions each. Mods only depend on mods with a
+ * lower index, and every version range is satisfied by the newest version of its
+ * target, so picking the newest version of every mod is always a valid solution.
+ */
+final class ModCandidateGraph {
+	private ModCandidateGraph() {
+
+	}
+
+	static Map<String, ModCandidateSet> generate(int candidateCount, long seed) {
+		Random random = new Random(seed);
+		Map<String, ModCandidateSet> candidateSets = new LinkedHashMap<>();
+		List<Integer> versionCounts = new ArrayList<>();
+		int candidates = 0;
+
+		for (int mod = 0; candidates < candidateCount; mod++) {
+			String id = "mod" + mod;
+			boolean userProvided = mod % 3 == 0;
+			int versions = userProvided ? 1 : Math.min(1 + random.nextInt(4), candidateCount - candidates);
+			ModCandidateSet set = new ModCandidateSet(id);
+
+			for (int version = 0; version < versions; version++) {
+				int depth = userProvided ? 0 : 1 + random.nextInt(3);
+				set.add(new ModCandidate(createMetadata(random, id, version, versionCounts), createUrl(id, version, depth), depth));
+			}
+
+			candidateSets.put(id, set);
+			versionCounts.add(versions);
+			candidates += versions;
+		}
+
+		return candidateSets;
+	}
+
+	private static LoaderModMetadata createMetadata(Random random, String id, int version, List<Integer> versionCounts) {
+		StringBuilder json = new StringBuilder();
+		json.append("{\"schemaVersion\":1,\"id\":\"").append(id).append("\",\"version\":\"1.").append(version).append(".0\",\"depends\":{");
+
+		int dependencies = versionCounts.isEmpty() ? 0 : random.nextInt(Math.min(versionCounts.size(), 3) + 1);
+		Set<Integer> targets = new HashSet<>();
+		while (targets.size() < dependencies) {
+			targets.add(random.nextInt(versionCounts.size()));
+		}
+
+		boolean first = true;
+		for (int target : targets) {
+			if (!first) {
+				json.append(',');
+			}
+
+			json.append("\"mod").append(target).append("\":\"").append(createRange(random, versionCounts.get(target))).append('"');
+			first = false;
+		}
+
+		json.append("}}");
+
+		LoaderModMetadata[] metadata = ModMetadataParser.getMods(FabricLoader.INSTANCE, new ByteArrayInputStream(json.toString().getBytes(StandardCharsets.UTF_8)));
+		if (metadata.length != 1) {
+			throw new IllegalStateException("Failed to parse generated metadata: " + json);
+		}
+
+		return metadata[0];
+	}
+
+	/**
+	 * @return A version range which includes the newest of the given number of versions.
+	 */
+	private static String createRange(Random random, int versionCount) {
+		int newest = versionCount - 1;
+
+		switch (random.nextInt(5)) {
+			case 0:
+				return ">=1." + random.nextInt(versionCount) + ".0";
+			case 1:
+				return "^1." + random.nextInt(versionCount) + ".0";
+			case 2:
+				return "~1." + newest + ".0";
+			case 3:
+				return "1.x";
+			default:
+				return ">=1." + random.nextInt(versionCount) + ".0 <2.0.0";
+		}
+	}
+
+	private static URL createUrl(String id, int version, int depth) {
+		try {
+			return new URL("file:/mods/" + (depth > 0 ? "nested/" + depth + "/" : "") + id + "-1." + version + ".0.jar");
+		} catch (MalformedURLException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
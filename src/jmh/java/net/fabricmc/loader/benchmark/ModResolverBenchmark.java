@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.benchmark;
+
+import net.fabricmc.loader.discovery.ModCandidate;
+import net.fabricmc.loader.discovery.ModCandidateSet;
+import net.fabricmc.loader.discovery.ModResolutionException;
+import net.fabricmc.loader.discovery.ModResolver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ModResolverBenchmark {
+	private static final Logger LOGGER = LogManager.getLogger("Benchmark");
+
+	@Param({ "10", "100", "1000", "5000" })
+	public int candidates;
+
+	private Map<String, ModCandidateSet> candidateSets;
+	private ModResolver resolver;
+
+	@Setup
+	public void setup() {
+		candidateSets = ModCandidateGraph.generate(candidates, 42);
+		resolver = new ModResolver();
+	}
+
+	@Benchmark
+	public void toSortedSet(Blackhole blackhole) throws ModResolutionException {
+		for (ModCandidateSet set : candidateSets.values()) {
+			Collection<ModCandidate> sorted = set.toSortedSet();
+			blackhole.consume(sorted);
+		}
+	}
+
+	@Benchmark
+	public Map<String, ModCandidate> findCompatibleSet() throws ModResolutionException {
+		return resolver.findCompatibleSet(LOGGER, candidateSets);
+	}
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.benchmark;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+/**
+ * Generates a mods folder for the startup benchmarks.
+ *
+ * Every mod has a main entrypoint which instantiates some of its classes, and depends on
+ * up to two mods before it. Every third mod carries a mixin injecting into the
+ * {@code run()V} method of a game class written by {@link SyntheticGameJar}, and every
+ * fifth mod nests a library jar; libraries are shared between mods in different versions
+ * so that the resolver has to pick one.
+ */
+public final class ModpackGenerator {
+	private static final int LIBRARIES = 5;
+
+	private ModpackGenerator() {
+
+	}
+
+	public static String modId(int index) {
+		return "synthmod" + index;
+	}
+
+	public static void generate(Path modsDir, int mods, int classesPerMod, int gameClasses, long seed) throws IOException {
+		Random random = new Random(seed);
+		Files.createDirectories(modsDir);
+
+		for (int mod = 0; mod < mods; mod++) {
+			String id = modId(mod);
+			String pkg = "synthetic/" + id;
+			JsonObject metadata = createMetadata(id, "1.0.0");
+			JsonObject depends = new JsonObject();
+
+			for (int i = 0; i < Math.min(mod, 2); i++) {
+				depends.addProperty(modId(random.nextInt(mod)), "*");
+			}
+
+			try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(modsDir.resolve(id + ".jar")), SyntheticJars.createManifest())) {
+				List<String> classes = SyntheticJars.writeClasses(out, pkg, classesPerMod);
+				writeEntry(out, pkg + "/Init.class", generateInitializer(pkg + "/Init", classes.subList(0, Math.min(classes.size(), 8))));
+
+				JsonObject entrypoints = new JsonObject();
+				JsonArray main = new JsonArray();
+				main.add(pkg.replace('/', '.') + ".Init");
+				entrypoints.add("main", main);
+				metadata.add("entrypoints", entrypoints);
+
+				if (mod % 3 == 0 && gameClasses > 0) {
+					String config = id + ".mixins.json";
+					JsonObject mixinConfig = new JsonObject();
+					mixinConfig.addProperty("required", true);
+					mixinConfig.addProperty("package", pkg.replace('/', '.') + ".mixin");
+					mixinConfig.addProperty("compatibilityLevel", "JAVA_8");
+					JsonArray mixins = new JsonArray();
+					mixins.add("GameMixin");
+					mixinConfig.add("mixins", mixins);
+					JsonObject injectors = new JsonObject();
+					injectors.addProperty("defaultRequire", 1);
+					mixinConfig.add("injectors", injectors);
+
+					writeEntry(out, config, mixinConfig.toString().getBytes(StandardCharsets.UTF_8));
+					writeEntry(out, pkg + "/mixin/GameMixin.class", generateMixin(pkg + "/mixin/GameMixin", id, SyntheticGameJar.intermediaryName(random.nextInt(gameClasses))));
+
+					JsonArray configs = new JsonArray();
+					configs.add(config);
+					metadata.add("mixins", configs);
+				}
+
+				if (mod % 5 == 0) {
+					String library = "synthlib" + (mod / 5) % LIBRARIES;
+					String path = "META-INF/jars/" + library + "-" + mod + ".jar";
+					writeEntry(out, path, generateLibrary(library, "1." + mod + ".0", classesPerMod / 2));
+					depends.addProperty(library, ">=1.0.0");
+
+					JsonArray jars = new JsonArray();
+					JsonObject jar = new JsonObject();
+					jar.addProperty("file", path);
+					jars.add(jar);
+					metadata.add("jars", jars);
+				}
+
+				metadata.add("depends", depends);
+				writeEntry(out, "fabric.mod.json", metadata.toString().getBytes(StandardCharsets.UTF_8));
+			}
+		}
+	}
+
+	private static JsonObject createMetadata(String id, String version) {
+		JsonObject metadata = new JsonObject();
+		metadata.addProperty("schemaVersion", 1);
+		metadata.addProperty("id", id);
+		metadata.addProperty("version", version);
+		return metadata;
+	}
+
+	private static byte[] generateLibrary(String id, String version, int classes) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		try (JarOutputStream out = new JarOutputStream(bytes, SyntheticJars.createManifest())) {
+			SyntheticJars.writeClasses(out, "synthetic/" + id + "_" + version.replace('.', '_'), classes);
+			writeEntry(out, "fabric.mod.json", createMetadata(id, version).toString().getBytes(StandardCharsets.UTF_8));
+		}
+
+		return bytes.toByteArray();
+	}
+
+	private static void writeEntry(JarOutputStream out, String name, byte[] data) throws IOException {
+		out.putNextEntry(new JarEntry(name));
+		out.write(data);
+		out.closeEntry();
+	}
+
+	private static byte[] generateInitializer(String name, List<String> classes) {
+		ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, name, null, "java/lang/Object", new String[] { "net/fabricmc/api/ModInitializer" });
+
+		MethodVisitor init = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+		init.visitCode();
+		init.visitVarInsn(Opcodes.ALOAD, 0);
+		init.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+		init.visitInsn(Opcodes.RETURN);
+		init.visitMaxs(0, 0);
+		init.visitEnd();
+
+		MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, "onInitialize", "()V", null, null);
+		method.visitCode();
+
+		for (String className : classes) {
+			String internalName = className.replace('.', '/');
+			method.visitTypeInsn(Opcodes.NEW, internalName);
+			method.visitInsn(Opcodes.DUP);
+			method.visitMethodInsn(Opcodes.INVOKESPECIAL, internalName, "<init>", "()V", false);
+			method.visitInsn(Opcodes.ICONST_1);
+			method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, internalName, "compute0", "(I)I", false);
+			method.visitInsn(Opcodes.POP);
+		}
+
+		method.visitInsn(Opcodes.RETURN);
+		method.visitMaxs(0, 0);
+		method.visitEnd();
+
+		writer.visitEnd();
+		return writer.toByteArray();
+	}
+
+	/**
+	 * Generates the equivalent of
+	 * {@code @Mixin(targets = "<target>") class GameMixin { @Inject(method = "run", at = @At("HEAD")) private void <id>$onRun(CallbackInfo info) { } }}.
+	 */
+	private static byte[] generateMixin(String name, String id, String target) {
+		ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER | Opcodes.ACC_ABSTRACT, name, null, "java/lang/Object", null);
+
+		AnnotationVisitor mixin = writer.visitAnnotation("Lorg/spongepowered/asm/mixin/Mixin;", false);
+		AnnotationVisitor targets = mixin.visitArray("targets");
+		targets.visit(null, target.replace('/', '.'));
+		targets.visitEnd();
+		mixin.visitEnd();
+
+		MethodVisitor init = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+		init.visitCode();
+		init.visitVarInsn(Opcodes.ALOAD, 0);
+		init.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+		init.visitInsn(Opcodes.RETURN);
+		init.visitMaxs(0, 0);
+		init.visitEnd();
+
+		// Unique handler names, as several mods may inject into the same game class
+		MethodVisitor handler = writer.visitMethod(Opcodes.ACC_PRIVATE, id + "$onRun", "(Lorg/spongepowered/asm/mixin/injection/callback/CallbackInfo;)V", null, null);
+		AnnotationVisitor inject = handler.visitAnnotation("Lorg/spongepowered/asm/mixin/injection/Inject;", true);
+		AnnotationVisitor method = inject.visitArray("method");
+		method.visit(null, "run");
+		method.visitEnd();
+		AnnotationVisitor at = inject.visitArray("at");
+		AnnotationVisitor head = at.visitAnnotation(null, "Lorg/spongepowered/asm/mixin/injection/At;");
+		head.visit("value", "HEAD");
+		head.visitEnd();
+		at.visitEnd();
+		inject.visitEnd();
+
+		handler.visitCode();
+		handler.visitInsn(Opcodes.RETURN);
+		handler.visitMaxs(0, 0);
+		handler.visitEnd();
+
+		writer.visitEnd();
+		return writer.toByteArray();
+	}
+}
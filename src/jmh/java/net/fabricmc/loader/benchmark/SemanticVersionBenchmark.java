@@ -0,0 +1,104 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.benchmark;
+
+import net.fabricmc.loader.api.Version;
+import net.fabricmc.loader.util.version.SemanticVersionImpl;
+import net.fabricmc.loader.util.version.SemanticVersionPredicateParser;
+import net.fabricmc.loader.util.version.VersionDeserializer;
+import net.fabricmc.loader.util.version.VersionParsingException;
+import net.fabricmc.loader.util.version.VersionPredicateParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SemanticVersionBenchmark {
+	private static final String[] VERSIONS = {
+		"1.0.0", "0.4.8", "1.14.3", "2.0.0-beta.3", "1.14.3-pre.2+build.5", "0.3.0+build.183", "10.2.1.7", "1.2.0-alpha.1.x"
+	};
+
+	private static final String[] NON_SEMANTIC_VERSIONS = {
+		"19w34a", "b1.7.3", "1.14.3 Pre-Release 2", "1.0.0_build5", "r1.2", "2019.10.1-snapshot+", "v1.0", "1.2.3.beta"
+	};
+
+	private static final String[] PREDICATES = {
+		"*", "1.14.3", ">=0.4.0", "^1.2.0", "~1.14.2", "1.x", ">=1.0.0 <2.0.0", ">=2.0.0-beta.1 <2.0.0"
+	};
+
+	private Version[] versions;
+
+	@Setup
+	public void setup() throws VersionParsingException {
+		versions = new Version[VERSIONS.length];
+		for (int i = 0; i < VERSIONS.length; i++) {
+			versions[i] = VersionDeserializer.deserialize(VERSIONS[i]);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(8)
+	public void parseVersion(Blackhole blackhole) throws VersionParsingException {
+		for (String version : VERSIONS) {
+			blackhole.consume(new SemanticVersionImpl(version, false));
+		}
+	}
+
+	/**
+	 * Strings which are not semantic versions fall back to {@code StringVersion} without
+	 * throwing and catching an exception.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(8)
+	public void tryParseNonSemantic(Blackhole blackhole) {
+		for (String version : NON_SEMANTIC_VERSIONS) {
+			blackhole.consume(SemanticVersionImpl.tryParse(version, false));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(8)
+	public void deserializeInterned(Blackhole blackhole) throws VersionParsingException {
+		for (String version : VERSIONS) {
+			blackhole.consume(VersionDeserializer.deserialize(version));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(8)
+	public void createPredicate(Blackhole blackhole) throws VersionParsingException {
+		for (String predicate : PREDICATES) {
+			blackhole.consume(SemanticVersionPredicateParser.create(predicate));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(64)
+	public void matches(Blackhole blackhole) throws VersionParsingException {
+		for (Version version : versions) {
+			for (String predicate : PREDICATES) {
+				blackhole.consume(VersionPredicateParser.matches(version, predicate));
+			}
+		}
+	}
+}
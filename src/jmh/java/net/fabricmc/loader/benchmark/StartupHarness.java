@@ -0,0 +1,204 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * End-to-end startup benchmark: generates a synthetic game and mods folder, then launches
+ * it through Knot in fresh processes and reports the time spent per startup phase.
+ *
+ * Cold runs start without the {@code .fabric} directory, and thus include remapping the
+ * game jar and extracting nested jars; warm runs reuse it. Everything is generated
+ * locally, so the benchmark runs offline.
+ *
+ * Options, all optional: {@code --dir <path> --mods <n> --classesPerMod <n>
+ * --gameClasses <n> --coldRuns <n> --warmRuns <n> --seed <n>}.
+ */
+public final class StartupHarness {
+	private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+	private static final String PROCESS = "(process)";
+	private static final String TOTAL = "(knot total)";
+
+	private StartupHarness() {
+
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new HashMap<>();
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			if (!args[i].startsWith("--")) {
+				throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+			}
+
+			options.put(args[i].substring(2), args[i + 1]);
+		}
+
+		Path dir = options.containsKey("dir") ? Paths.get(options.get("dir")) : Files.createTempDirectory("fabric-startup");
+		int mods = Integer.parseInt(options.getOrDefault("mods", "100"));
+		int classesPerMod = Integer.parseInt(options.getOrDefault("classesPerMod", "20"));
+		int gameClasses = Integer.parseInt(options.getOrDefault("gameClasses", "500"));
+		int coldRuns = Integer.parseInt(options.getOrDefault("coldRuns", "1"));
+		int warmRuns = Integer.parseInt(options.getOrDefault("warmRuns", "5"));
+		long seed = Long.parseLong(options.getOrDefault("seed", "0"));
+
+		dir = dir.toAbsolutePath();
+		Path gameJar = dir.resolve("game.jar");
+		Path classpathDir = dir.resolve("classpath");
+		System.out.printf("Generating %d mods and a game with %d classes in %s%n", mods, gameClasses, dir);
+		deleteRecursively(dir.resolve("mods"));
+		Files.createDirectories(dir);
+		SyntheticGameJar.write(gameJar, classpathDir, gameClasses);
+		ModpackGenerator.generate(dir.resolve("mods"), mods, classesPerMod, gameClasses, seed);
+
+		Map<String, List<Long>> cold = new LinkedHashMap<>();
+		Map<String, List<Long>> warm = new LinkedHashMap<>();
+
+		for (int run = 0; run < coldRuns + warmRuns; run++) {
+			boolean isCold = run < coldRuns;
+			if (isCold) {
+				deleteRecursively(dir.resolve(".fabric"));
+			}
+
+			Map<String, Long> result = launch(dir, gameJar, classpathDir, run);
+			System.out.printf("%s run %d: %d ms%n", isCold ? "Cold" : "Warm", run, result.get(PROCESS) / 1000000);
+
+			for (Map.Entry<String, Long> entry : result.entrySet()) {
+				(isCold ? cold : warm).computeIfAbsent(entry.getKey(), (k) -> new ArrayList<>()).add(entry.getValue());
+			}
+		}
+
+		report(dir, cold, warm);
+	}
+
+	/**
+	 * @return The summed up duration of every phase by name, in nanoseconds.
+	 */
+	private static Map<String, Long> launch(Path dir, Path gameJar, Path classpathDir, int run) throws IOException, InterruptedException {
+		Path output = dir.resolve("startup-" + run + ".json");
+		Path log = dir.resolve("startup-" + run + ".log");
+		Files.deleteIfExists(output);
+
+		String classpath = Stream.concat(
+			Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator)).map((s) -> new File(s).getAbsolutePath()),
+			Stream.of(classpathDir.toString(), gameJar.toString())
+		).collect(Collectors.joining(File.pathSeparator));
+
+		ProcessBuilder builder = new ProcessBuilder(
+			Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+			"-cp", classpath,
+			"-Dfabric.gameJarPath=" + gameJar,
+			"-D" + StartupProbe.OUTPUT_PROPERTY + "=" + output,
+			StartupProbe.class.getName()
+		);
+		builder.directory(dir.toFile());
+		builder.redirectErrorStream(true);
+		builder.redirectOutput(log.toFile());
+
+		long start = System.nanoTime();
+		int exitCode = builder.start().waitFor();
+		long processTime = System.nanoTime() - start;
+
+		if (exitCode != 0 || !Files.exists(output)) {
+			throw new IllegalStateException("Launch " + run + " failed with exit code " + exitCode + ", see " + log);
+		}
+
+		Map<String, Long> result = new LinkedHashMap<>();
+		result.put(PROCESS, processTime);
+
+		try (Reader reader = Files.newBufferedReader(output, StandardCharsets.UTF_8)) {
+			JsonObject json = new JsonParser().parse(reader).getAsJsonObject();
+			result.put(TOTAL, json.get("totalNanos").getAsLong());
+
+			for (JsonElement element : json.getAsJsonArray("phases")) {
+				JsonObject phase = element.getAsJsonObject();
+				result.merge(phase.get("name").getAsString(), phase.get("nanos").getAsLong(), Long::sum);
+			}
+		}
+
+		return result;
+	}
+
+	private static void report(Path dir, Map<String, List<Long>> cold, Map<String, List<Long>> warm) throws IOException {
+		Set<String> phases = new LinkedHashSet<>(cold.keySet());
+		phases.addAll(warm.keySet());
+
+		int width = phases.stream().mapToInt(String::length).max().orElse(0);
+		System.out.printf("%n%-" + width + "s %12s %12s %12s%n", "Phase", "cold (ms)", "warm (ms)", "warm min");
+
+		JsonObject json = new JsonObject();
+		for (String phase : phases) {
+			List<Long> coldTimes = cold.getOrDefault(phase, Collections.emptyList());
+			List<Long> warmTimes = warm.getOrDefault(phase, Collections.emptyList());
+			System.out.printf("%-" + width + "s %12s %12s %12s%n", phase, format(median(coldTimes)), format(median(warmTimes)), format(warmTimes.stream().min(Long::compare).orElse(-1L)));
+
+			JsonObject entry = new JsonObject();
+			entry.add("cold", GSON.toJsonTree(coldTimes));
+			entry.add("warm", GSON.toJsonTree(warmTimes));
+			json.add(phase, entry);
+		}
+
+		Path report = dir.resolve("startup-benchmark.json");
+		try (Writer writer = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+			GSON.toJson(json, writer);
+		}
+
+		System.out.println("\nRaw timings (ns) written to " + report);
+	}
+
+	private static long median(List<Long> times) {
+		if (times.isEmpty()) {
+			return -1;
+		}
+
+		List<Long> sorted = new ArrayList<>(times);
+		Collections.sort(sorted);
+		return sorted.get(sorted.size() / 2);
+	}
+
+	private static String format(long nanos) {
+		return nanos < 0 ? "-" : String.format(Locale.ROOT, "%.1f", nanos / 1000000.0);
+	}
+
+	private static void deleteRecursively(Path path) throws IOException {
+		if (!Files.exists(path)) {
+			return;
+		}
+
+		try (Stream<Path> files = Files.walk(path)) {
+			for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+				Files.delete(file);
+			}
+		}
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.benchmark;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import net.fabricmc.loader.launch.knot.KnotServer;
+import net.fabricmc.loader.util.StartupTimeline;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Launches the synthetic game through Knot in the current process, and writes the startup
+ * timeline to the file given by {@code fabric.startupBenchmark.output}. Run by
+ * {@link StartupHarness}, one process per launch.
+ */
+public final class StartupProbe {
+	public static final String OUTPUT_PROPERTY = "fabric.startupBenchmark.output";
+
+	private StartupProbe() {
+
+	}
+
+	public static void main(String[] args) throws IOException {
+		long start = System.nanoTime();
+		KnotServer.main(args);
+		long total = System.nanoTime() - start;
+
+		JsonObject result = new JsonObject();
+		result.addProperty("totalNanos", total);
+		JsonArray phases = new JsonArray();
+
+		for (StartupTimeline.Phase phase : StartupTimeline.getPhases()) {
+			JsonObject entry = new JsonObject();
+			entry.addProperty("name", phase.getName());
+			entry.addProperty("thread", phase.getThread());
+			entry.addProperty("nanos", phase.getEndNanos() - phase.getStartNanos());
+			phases.add(entry);
+		}
+
+		result.add("phases", phases);
+
+		try (Writer writer = Files.newBufferedWriter(Paths.get(System.getProperty(OUTPUT_PROPERTY)), StandardCharsets.UTF_8)) {
+			writer.write(result.toString());
+		}
+
+		System.out.println("Started in " + TimeUnit.NANOSECONDS.toMillis(total) + " ms");
+		// Nothing waits for the game to shut down, so don't wait for stray non-daemon threads either
+		System.exit(0);
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.benchmark;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+/**
+ * Writes a stand-in game jar for {@link SyntheticGameProvider}, along with official to
+ * intermediary mappings for it.
+ *
+ * The game consists of obfuscated classes {@code a0} to {@code a<n>}, each with a
+ * {@code run()V} method which mods can inject into, and a main class which starts the
+ * server entrypoints before constructing and running every game class once.
+ */
+public final class SyntheticGameJar {
+	public static final String MAIN_CLASS = "SyntheticGame";
+	private static final int CLASSES_PER_METHOD = 1000;
+
+	private SyntheticGameJar() {
+
+	}
+
+	public static String officialName(int index) {
+		return "a" + index;
+	}
+
+	public static String intermediaryName(int index) {
+		return "net/minecraft/class_" + index;
+	}
+
+	/**
+	 * @param jar The game jar to write.
+	 * @param classpathDir The directory to write {@code mappings/mappings.tiny} into, which
+	 *                     has to be on the class path of the launched game.
+	 */
+	public static void write(Path jar, Path classpathDir, int classes) throws IOException {
+		try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar), SyntheticJars.createManifest())) {
+			for (int i = 0; i < classes; i++) {
+				out.putNextEntry(new JarEntry(officialName(i) + ".class"));
+				out.write(generateGameClass(i));
+				out.closeEntry();
+			}
+
+			out.putNextEntry(new JarEntry(MAIN_CLASS + ".class"));
+			out.write(generateMainClass(classes));
+			out.closeEntry();
+		}
+
+		Path mappings = classpathDir.resolve("mappings").resolve("mappings.tiny");
+		Files.createDirectories(mappings.getParent());
+
+		try (Writer writer = Files.newBufferedWriter(mappings, StandardCharsets.UTF_8)) {
+			writer.write("v1\tofficial\tintermediary\n");
+
+			for (int i = 0; i < classes; i++) {
+				writer.write("CLASS\t" + officialName(i) + "\t" + intermediaryName(i) + "\n");
+			}
+		}
+	}
+
+	private static byte[] generateGameClass(int index) {
+		String name = officialName(index);
+		String superName = index % 4 == 3 ? officialName(index - 1) : "java/lang/Object";
+		ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, name, null, superName, null);
+		writer.visitField(Opcodes.ACC_PRIVATE, "b", "I", null, null).visitEnd();
+
+		MethodVisitor init = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+		init.visitCode();
+		init.visitVarInsn(Opcodes.ALOAD, 0);
+		init.visitMethodInsn(Opcodes.INVOKESPECIAL, superName, "<init>", "()V", false);
+		init.visitInsn(Opcodes.RETURN);
+		init.visitMaxs(0, 0);
+		init.visitEnd();
+
+		MethodVisitor run = writer.visitMethod(Opcodes.ACC_PUBLIC, "run", "()V", null, null);
+		run.visitCode();
+		run.visitVarInsn(Opcodes.ALOAD, 0);
+		run.visitInsn(Opcodes.DUP);
+		run.visitFieldInsn(Opcodes.GETFIELD, name, "b", "I");
+		run.visitInsn(Opcodes.ICONST_1);
+		run.visitInsn(Opcodes.IADD);
+		run.visitFieldInsn(Opcodes.PUTFIELD, name, "b", "I");
+		run.visitInsn(Opcodes.RETURN);
+		run.visitMaxs(0, 0);
+		run.visitEnd();
+
+		writer.visitEnd();
+		return writer.toByteArray();
+	}
+
+	private static byte[] generateMainClass(int classes) {
+		ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, MAIN_CLASS, null, "java/lang/Object", null);
+
+		MethodVisitor main = writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "main", "([Ljava/lang/String;)V", null, null);
+		main.visitCode();
+		main.visitTypeInsn(Opcodes.NEW, "java/io/File");
+		main.visitInsn(Opcodes.DUP);
+		main.visitLdcInsn(".");
+		main.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/io/File", "<init>", "(Ljava/lang/String;)V", false);
+		main.visitInsn(Opcodes.ACONST_NULL);
+		main.visitMethodInsn(Opcodes.INVOKESTATIC, "net/fabricmc/loader/entrypoint/hooks/EntrypointServer", "start", "(Ljava/io/File;Ljava/lang/Object;)V", false);
+
+		// Split up to stay below the method size limit
+		for (int start = 0; start < classes; start += CLASSES_PER_METHOD) {
+			main.visitMethodInsn(Opcodes.INVOKESTATIC, MAIN_CLASS, "runClasses" + start, "()V", false);
+		}
+
+		main.visitInsn(Opcodes.RETURN);
+		main.visitMaxs(0, 0);
+		main.visitEnd();
+
+		for (int start = 0; start < classes; start += CLASSES_PER_METHOD) {
+			MethodVisitor method = writer.visitMethod(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC, "runClasses" + start, "()V", null, null);
+			method.visitCode();
+
+			for (int i = start; i < Math.min(start + CLASSES_PER_METHOD, classes); i++) {
+				method.visitTypeInsn(Opcodes.NEW, officialName(i));
+				method.visitInsn(Opcodes.DUP);
+				method.visitMethodInsn(Opcodes.INVOKESPECIAL, officialName(i), "<init>", "()V", false);
+				method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, officialName(i), "run", "()V", false);
+			}
+
+			method.visitInsn(Opcodes.RETURN);
+			method.visitMaxs(0, 0);
+			method.visitEnd();
+		}
+
+		writer.visitEnd();
+		return writer.toByteArray();
+	}
+}
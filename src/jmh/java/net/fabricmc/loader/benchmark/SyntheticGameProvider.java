@@ -0,0 +1,105 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.benchmark;
+
+import net.fabricmc.api.EnvType;
+import net.fabricmc.loader.game.GameProvider;
+import net.fabricmc.loader.util.UrlConversionException;
+import net.fabricmc.loader.util.UrlUtil;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Game provider for the stand-in game written by {@link SyntheticGameJar}, registered
+ * through {@code META-INF/services} so that Knot can launch it like Minecraft.
+ */
+public class SyntheticGameProvider implements GameProvider {
+	private Path gameJar;
+	private String[] arguments = new String[0];
+
+	@Override
+	public String getGameId() {
+		return "synthetic";
+	}
+
+	@Override
+	public String getGameName() {
+		return "Synthetic Game";
+	}
+
+	@Override
+	public String getEntrypoint() {
+		return SyntheticGameJar.MAIN_CLASS;
+	}
+
+	@Override
+	public Path getLaunchDirectory() {
+		return new File(".").toPath();
+	}
+
+	@Override
+	public boolean isObfuscated() {
+		return true;
+	}
+
+	@Override
+	public boolean requiresUrlClassLoader() {
+		return false;
+	}
+
+	@Override
+	public List<Path> getGameContextJars() {
+		return Collections.singletonList(gameJar);
+	}
+
+	@Override
+	public boolean locateGame(EnvType envType, ClassLoader loader) {
+		String filename = SyntheticGameJar.MAIN_CLASS.replace('.', '/') + ".class";
+		URL url = loader.getResource(filename);
+		if (url == null) {
+			return false;
+		}
+
+		try {
+			gameJar = UrlUtil.asPath(UrlUtil.getSource(filename, url));
+			return true;
+		} catch (UrlConversionException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public void acceptArguments(String... arguments) {
+		this.arguments = arguments;
+	}
+
+	@Override
+	public void launch(ClassLoader loader) {
+		try {
+			Class<?> c = loader.loadClass(SyntheticGameJar.MAIN_CLASS);
+			Method m = c.getMethod("main", String[].class);
+			m.invoke(null, (Object) arguments);
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
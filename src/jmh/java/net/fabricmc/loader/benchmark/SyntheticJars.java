@@ -0,0 +1,141 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.benchmark;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+/**
+ * Generates jars of synthetic classes for the class loading benchmarks.
+ *
+ * Every fourth class extends the class before it, so that defining it also loads its
+ * superclass. Every fifth class is annotated with {@code @Environment(SERVER)}, and every
+ * class carries one field and one method annotated with {@code @Environment(CLIENT)},
+ * which are stripped when loading for the server.
+ */
+public final class SyntheticJars {
+	private static final String ENVIRONMENT = "Lnet/fabricmc/api/Environment;";
+	private static final String ENV_TYPE = "Lnet/fabricmc/api/EnvType;";
+
+	private SyntheticJars() {
+
+	}
+
+	/**
+	 * @return The class names in each jar, in dot-format.
+	 */
+	public static List<List<String>> writeJars(Path dir, String prefix, int jars, int classesPerJar) throws IOException {
+		List<List<String>> classNames = new ArrayList<>(jars);
+
+		for (int jar = 0; jar < jars; jar++) {
+			try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(dir.resolve(prefix + jar + ".jar")), createManifest())) {
+				classNames.add(writeClasses(out, "synthetic/" + prefix + jar, classesPerJar));
+			}
+		}
+
+		return classNames;
+	}
+
+	/**
+	 * Writes {@code count} synthetic classes named {@code <pkg>/Class<n>} into an open jar.
+	 *
+	 * @return The class names, in dot-format.
+	 */
+	public static List<String> writeClasses(JarOutputStream out, String pkg, int count) throws IOException {
+		List<String> names = new ArrayList<>(count);
+
+		for (int i = 0; i < count; i++) {
+			String name = pkg + "/Class" + i;
+			String superName = i % 4 == 3 ? pkg + "/Class" + (i - 1) : "java/lang/Object";
+
+			out.putNextEntry(new JarEntry(name + ".class"));
+			out.write(generateClass(name, superName, i % 5 == 0));
+			out.closeEntry();
+			names.add(name.replace('/', '.'));
+		}
+
+		return names;
+	}
+
+	public static Manifest createManifest() {
+		Manifest manifest = new Manifest();
+		manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		return manifest;
+	}
+
+	public static byte[] generateClass(String name, String superName, boolean serverOnly) {
+		ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, name, null, superName, null);
+
+		if (serverOnly) {
+			visitEnvironment(writer.visitAnnotation(ENVIRONMENT, false), "SERVER");
+		}
+
+		writer.visitField(Opcodes.ACC_PRIVATE, "value", "I", null, null).visitEnd();
+
+		FieldVisitor clientField = writer.visitField(Opcodes.ACC_PRIVATE, "clientValue", "Ljava/lang/String;", null, null);
+		visitEnvironment(clientField.visitAnnotation(ENVIRONMENT, false), "CLIENT");
+		clientField.visitEnd();
+
+		MethodVisitor init = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+		init.visitCode();
+		init.visitVarInsn(Opcodes.ALOAD, 0);
+		init.visitMethodInsn(Opcodes.INVOKESPECIAL, superName, "<init>", "()V", false);
+		init.visitInsn(Opcodes.RETURN);
+		init.visitMaxs(0, 0);
+		init.visitEnd();
+
+		for (int i = 0; i < 4; i++) {
+			MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, "compute" + i, "(I)I", null, null);
+			if (i == 3) {
+				visitEnvironment(method.visitAnnotation(ENVIRONMENT, false), "CLIENT");
+			}
+
+			method.visitCode();
+			method.visitVarInsn(Opcodes.ALOAD, 0);
+			method.visitFieldInsn(Opcodes.GETFIELD, name, "value", "I");
+			method.visitVarInsn(Opcodes.ILOAD, 1);
+			method.visitInsn(Opcodes.IADD);
+			method.visitLdcInsn(i * 31 + 7);
+			method.visitInsn(Opcodes.IMUL);
+			method.visitInsn(Opcodes.IRETURN);
+			method.visitMaxs(0, 0);
+			method.visitEnd();
+		}
+
+		writer.visitEnd();
+		return writer.toByteArray();
+	}
+
+	private static void visitEnvironment(AnnotationVisitor visitor, String envType) {
+		visitor.visitEnum("value", ENV_TYPE, envType);
+		visitor.visitEnd();
+	}
+}
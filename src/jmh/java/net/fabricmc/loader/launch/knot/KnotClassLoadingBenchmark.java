@@ -0,0 +1,170 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.launch.knot;
+
+import net.fabricmc.api.EnvType;
+import net.fabricmc.loader.benchmark.SyntheticJars;
+import net.fabricmc.loader.transformer.FabricTransformer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Exercises the Knot class loading path against jars of synthetic mod classes.
+ *
+ * The loaders run the Fabric transformers but no Mixin transformer, see
+ * {@link KnotClassDelegate#initializeTransformersWithoutMixin()}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KnotClassLoadingBenchmark {
+	private static final int SAMPLE_SIZE = 256;
+
+	@Param({ "50" })
+	public int jars;
+
+	@Param({ "100" })
+	public int classesPerJar;
+
+	private Path dir;
+	private List<List<String>> classNames;
+	private String[] sampleNames = new String[SAMPLE_SIZE];
+	private byte[][] sampleBytes = new byte[SAMPLE_SIZE][];
+	private KnotClassLoader sharedLoader;
+	private KnotClassLoader freshLoader;
+	private ExecutorService executor;
+
+	@Setup(Level.Trial)
+	public void setupTrial() throws IOException {
+		dir = Files.createTempDirectory("knot-benchmark");
+		classNames = SyntheticJars.writeJars(dir, "mod", jars, classesPerJar);
+		sharedLoader = createLoader();
+
+		for (int i = 0; i < SAMPLE_SIZE; i++) {
+			List<String> jar = classNames.get(i % jars);
+			sampleNames[i] = jar.get((i * 31) % jar.size());
+			sampleBytes[i] = sharedLoader.getDelegate().getClassByteArray(sampleNames[i], true);
+		}
+
+		executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+	}
+
+	@Setup(Level.Invocation)
+	public void setupInvocation() throws IOException {
+		freshLoader = createLoader();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		executor.shutdownNow();
+
+		try (Stream<Path> files = Files.walk(dir)) {
+			files.sorted(Comparator.reverseOrder()).forEach((p) -> p.toFile().delete());
+		}
+	}
+
+	private KnotClassLoader createLoader() throws IOException {
+		KnotClassLoader loader = new KnotClassLoader(false, EnvType.SERVER);
+
+		for (int jar = 0; jar < jars; jar++) {
+			loader.addURL(dir.resolve("mod" + jar + ".jar").toUri().toURL());
+		}
+
+		loader.getDelegate().initializeTransformersWithoutMixin();
+		return loader;
+	}
+
+	/**
+	 * Read, transform and define every class on one thread, in a new class loader.
+	 */
+	@Benchmark
+	public void defineAllSingleThreaded(Blackhole blackhole) throws ClassNotFoundException {
+		for (List<String> jar : classNames) {
+			for (String name : jar) {
+				blackhole.consume(freshLoader.loadClass(name));
+			}
+		}
+	}
+
+	/**
+	 * Read, transform and define every class in a new class loader, with one task per jar.
+	 */
+	@Benchmark
+	public void defineAllMultiThreaded(Blackhole blackhole) throws Exception {
+		List<Future<?>> futures = new ArrayList<>(classNames.size());
+
+		for (List<String> jar : classNames) {
+			futures.add(executor.submit(() -> {
+				for (String name : jar) {
+					blackhole.consume(freshLoader.loadClass(name));
+				}
+
+				return null;
+			}));
+		}
+
+		for (Future<?> future : futures) {
+			future.get();
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(SAMPLE_SIZE)
+	public void fabricTransform(Blackhole blackhole) {
+		for (int i = 0; i < SAMPLE_SIZE; i++) {
+			blackhole.consume(FabricTransformer.transform(false, EnvType.SERVER, sampleNames[i], sampleBytes[i]));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(SAMPLE_SIZE)
+	public void getClassByteArray(Blackhole blackhole) throws IOException {
+		for (String name : sampleNames) {
+			blackhole.consume(sharedLoader.getDelegate().getClassByteArray(name, true));
+		}
+	}
+
+	/**
+	 * Look up classes which exist in none of the jars, nor on the class path.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(SAMPLE_SIZE)
+	public void lookupMiss(Blackhole blackhole) {
+		for (String name : sampleNames) {
+			try {
+				blackhole.consume(sharedLoader.loadClass(name + "Missing"));
+			} catch (ClassNotFoundException e) {
+				blackhole.consume(e);
+			}
+		}
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.metadata;
+
+import net.fabricmc.loader.FabricLoader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the streaming metadata reader against parsing through a {@code JsonElement}
+ * tree, over a corpus of real-world fabric.mod.json and okyanus.json files.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ModMetadataParserBenchmark {
+	@Param({
+		"fabric-api-base.json", "fabric-networking.json", "fabric-api.json", "modmenu.json",
+		"fabric-language-kotlin.json", "legacy-v0.json", "okyanus-server-mod.json", "okyanus-loader.json"
+	})
+	public String file;
+
+	private byte[] data;
+
+	@Setup
+	public void setup() throws IOException {
+		try (InputStream in = ModMetadataParserBenchmark.class.getResourceAsStream("/metadata/" + file)) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			int read;
+
+			while ((read = in.read(buffer)) >= 0) {
+				out.write(buffer, 0, read);
+			}
+
+			data = out.toByteArray();
+		}
+
+		LoaderModMetadata streamed = streaming();
+		LoaderModMetadata tree = tree();
+		if (!streamed.getId().equals(tree.getId()) || !streamed.getVersion().getFriendlyString().equals(tree.getVersion().getFriendlyString()) || streamed.getDepends().size() != tree.getDepends().size()) {
+			throw new IllegalStateException("Streaming and tree parsers disagree on " + file);
+		}
+	}
+
+	@Benchmark
+	public LoaderModMetadata streaming() {
+		return ModMetadataParser.getMods(FabricLoader.INSTANCE, new ByteArrayInputStream(data))[0];
+	}
+
+	@Benchmark
+	public LoaderModMetadata tree() {
+		return ModMetadataParser.readModTree(FabricLoader.INSTANCE, data);
+	}
+}
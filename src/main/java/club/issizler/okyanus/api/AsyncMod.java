@@ -0,0 +1,21 @@
+package club.issizler.okyanus.api;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A mod initializer which performs its work asynchronously.
+ *
+ * Declared in the "server" entrypoint list, just like {@link Mod}. The loader
+ * runs asynchronous initializers alongside the synchronous ones; each one is
+ * started once the synchronous initializers of its mod and its dependencies
+ * have run and the asynchronous initializers of its dependencies have completed.
+ * The server waits for all of them to complete before it starts accepting connections.
+ */
+public interface AsyncMod {
+	/**
+	 * Start initializing the mod. Long-running work should be done off the calling thread.
+	 *
+	 * @return A future which completes once the mod is initialized.
+	 */
+	CompletableFuture<?> initAsync();
+}
@@ -5,4 +5,8 @@ public class Library {
 	public String name;
 	public String url;
 
-}
\ No newline at end of file
+	// optional, hex-encoded; preferred over the checksum files published next to the artifact
+	public String sha1;
+	public String sha256;
+
+}
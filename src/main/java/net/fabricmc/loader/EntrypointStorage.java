@@ -16,17 +16,21 @@
 
 package net.fabricmc.loader;
 
+import net.fabricmc.loader.api.EntrypointContainer;
 import net.fabricmc.loader.api.EntrypointException;
 import net.fabricmc.loader.api.LanguageAdapter;
 import net.fabricmc.loader.api.LanguageAdapterException;
 import net.fabricmc.loader.launch.common.FabricLauncherBase;
 import net.fabricmc.loader.metadata.EntrypointMetadata;
+import net.fabricmc.loader.util.ModProfiler;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 class EntrypointStorage {
 	static interface Entry {
 		<T> T getOrCreate(Class<T> type) throws Exception;
+		ModContainer getModContainer();
 	}
 
 	private static class OldEntry implements Entry {
@@ -51,10 +55,12 @@ class EntrypointStorage {
 		}
 
 		@Override
-		public <T> T getOrCreate(Class<T> type) throws Exception {
+		public synchronized <T> T getOrCreate(Class<T> type) throws Exception {
 			if (object == null) {
+				ModProfiler.Section section = ModProfiler.begin();
 				net.fabricmc.loader.language.LanguageAdapter adapter = (net.fabricmc.loader.language.LanguageAdapter) Class.forName(languageAdapter, true, FabricLauncherBase.getLauncher().getTargetClassLoader()).getConstructor().newInstance();
 				object = adapter.createInstance(value, options);
+				ModProfiler.end(section, mod.getInfo().getId(), ModProfiler.Category.ENTRYPOINT_CREATE);
 			}
 
 			if (object == null || !type.isAssignableFrom(object.getClass())) {
@@ -64,6 +70,11 @@ class EntrypointStorage {
 				return (T) object;
 			}
 		}
+
+		@Override
+		public ModContainer getModContainer() {
+			return mod;
+		}
 	}
 
 	private static class NewEntry implements Entry {
@@ -84,11 +95,15 @@ class EntrypointStorage {
 		}
 
 		@Override
-		public <T> T getOrCreate(Class<T> type) throws Exception {
+		public synchronized <T> T getOrCreate(Class<T> type) throws Exception {
 			Object o = instanceMap.get(type);
 			if (o == null) {
+				long time = System.nanoTime();
+				ModProfiler.Section section = ModProfiler.begin();
 				o = create(type);
+				ModProfiler.end(section, mod.getInfo().getId(), ModProfiler.Category.ENTRYPOINT_CREATE);
 				instanceMap.put(type, o);
+				FabricLoader.INSTANCE.getLogger().debug("Created " + type.getName() + " entrypoint " + value + " for mod " + mod.getInfo().getId() + " in " + (System.nanoTime() - time) / 1000000 + " ms");
 			}
 			//noinspection unchecked
 			return (T) o;
@@ -97,14 +112,59 @@ class EntrypointStorage {
 		private <T> T create(Class<T> type) throws Exception {
 			return adapter.create(mod, value, type);
 		}
+
+		@Override
+		public ModContainer getModContainer() {
+			return mod;
+		}
+	}
+
+	/**
+	 * The entrypoints of one (key, type) pair, resolved once and shared by all callers.
+	 */
+	private static final class ResolvedEntrypoints<T> {
+		private final List<T> entrypoints;
+		private final List<EntrypointContainer<T>> containers;
+
+		private ResolvedEntrypoints(List<EntrypointContainer<T>> containers) {
+			List<T> entrypoints = new ArrayList<>(containers.size());
+			for (EntrypointContainer<T> container : containers) {
+				entrypoints.add(container.getEntrypoint());
+			}
+
+			this.entrypoints = Collections.unmodifiableList(entrypoints);
+			this.containers = Collections.unmodifiableList(new ArrayList<>(containers));
+		}
 	}
 
-	private final Map<String, List<Entry>> entryMap = new HashMap<>();
+	// only written by the launch thread while mods are instantiated, then replaced by an unmodifiable
+	// snapshot in freeze() which is the only version read by other threads
+	private volatile Map<String, List<Entry>> entryMap = new HashMap<>();
+	private final Map<String, Map<Class<?>, ResolvedEntrypoints<?>>> resolvedMap = new ConcurrentHashMap<>();
+	private boolean frozen = false;
 
 	private List<Entry> getOrCreateEntries(String key) {
+		if (frozen) {
+			throw new RuntimeException("Frozen - cannot add entrypoints!");
+		}
+
+		resolvedMap.clear();
 		return entryMap.computeIfAbsent(key, (z) -> new ArrayList<>());
 	}
 
+	/**
+	 * Publish the registered entries as an unmodifiable snapshot, preventing additional entries from being added.
+	 */
+	protected void freeze() {
+		Map<String, List<Entry>> snapshot = new HashMap<>();
+		for (Map.Entry<String, List<Entry>> entry : entryMap.entrySet()) {
+			snapshot.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<>(entry.getValue())));
+		}
+
+		frozen = true;
+		entryMap = Collections.unmodifiableMap(snapshot);
+	}
+
 	protected void addDeprecated(ModContainer modContainer, String adapter, String value) throws ClassNotFoundException, LanguageAdapterException {
 		FabricLoader.INSTANCE.getLogger().debug("Registering 0.3.x old-style initializer " + value + " for mod " + modContainer.getInfo().getId());
 		OldEntry oe = new OldEntry(modContainer, adapter, value);
@@ -125,18 +185,46 @@ class EntrypointStorage {
 	}
 
 	protected <T> List<T> getEntrypoints(String key, Class<T> type) {
+		ResolvedEntrypoints<T> resolved = resolve(key, type);
+		return resolved != null ? resolved.entrypoints : Collections.emptyList();
+	}
+
+	protected <T> List<EntrypointContainer<T>> getEntrypointContainers(String key, Class<T> type) {
+		ResolvedEntrypoints<T> resolved = resolve(key, type);
+		return resolved != null ? resolved.containers : Collections.emptyList();
+	}
+
+	// resolvedMap is keyed by the entrypoint type, so every value is a ResolvedEntrypoints of its key
+	@SuppressWarnings("unchecked")
+	private <T> ResolvedEntrypoints<T> resolve(String key, Class<T> type) {
+		Map<Class<?>, ResolvedEntrypoints<?>> typeMap = resolvedMap.get(key);
+		if (typeMap != null) {
+			//noinspection unchecked
+			ResolvedEntrypoints<T> resolved = (ResolvedEntrypoints<T>) typeMap.get(type);
+			if (resolved != null) {
+				return resolved;
+			}
+		}
+
 		List<Entry> entries = entryMap.get(key);
 		if (entries == null) {
-			return Collections.emptyList();
+			return null;
 		}
 
+		ResolvedEntrypoints<T> resolved = new ResolvedEntrypoints<>(createEntrypointContainers(key, type, entries));
+		//noinspection unchecked
+		ResolvedEntrypoints<T> existing = (ResolvedEntrypoints<T>) resolvedMap.computeIfAbsent(key, (z) -> new ConcurrentHashMap<>()).putIfAbsent(type, resolved);
+		return existing != null ? existing : resolved;
+	}
+
+	private <T> List<EntrypointContainer<T>> createEntrypointContainers(String key, Class<T> type, List<Entry> entries) {
 		boolean hadException = false;
-		List<T> results = new ArrayList<>(entries.size());
+		List<EntrypointContainer<T>> results = new ArrayList<>(entries.size());
 		for (Entry entry : entries) {
 			try {
 				T result = entry.getOrCreate(type);
 				if (result != null) {
-					results.add(result);
+					results.add(new EntrypointContainerImpl<>(entry.getModContainer(), result));
 				}
 			} catch (LanguageAdapterException e) {
 				/* ignore for compatibility */
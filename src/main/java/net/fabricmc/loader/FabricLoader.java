@@ -17,8 +17,11 @@
 package net.fabricmc.loader;
 
 import net.fabricmc.api.EnvType;
+import net.fabricmc.loader.api.EntrypointContainer;
 import net.fabricmc.loader.api.LanguageAdapter;
+import net.fabricmc.loader.api.LoaderMetrics;
 import net.fabricmc.loader.api.MappingResolver;
+import net.fabricmc.loader.api.MemberHandleResolver;
 import net.fabricmc.loader.api.SemanticVersion;
 import net.fabricmc.loader.discovery.*;
 import net.fabricmc.loader.launch.common.FabricLauncherBase;
@@ -26,6 +29,8 @@ import net.fabricmc.loader.launch.knot.Knot;
 import net.fabricmc.loader.metadata.EntrypointMetadata;
 import net.fabricmc.loader.metadata.LoaderModMetadata;
 import net.fabricmc.loader.util.DefaultLanguageAdapter;
+import net.fabricmc.loader.util.LoaderMetricsImpl;
+import net.fabricmc.loader.util.ModProfiler;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -57,13 +62,33 @@ public class FabricLoader implements net.fabricmc.loader.api.FabricLoader {
 	private final EntrypointStorage entrypointStorage = new EntrypointStorage();
 
 	private boolean frozen = false;
+	// immutable views of the loaded mods, published on freeze
+	private volatile FrozenState frozenState;
 
 	private Object gameInstance;
 
 	private MappingResolver mappingResolver;
+	private MemberHandleResolver memberHandleResolver;
 	private File gameDir;
 	private File configDir;
 
+	private static final class FrozenState {
+		private final Map<String, Optional<net.fabricmc.loader.api.ModContainer>> containers;
+		private final List<ModContainer> mods;
+		private final List<net.fabricmc.loader.api.ModContainer> allMods;
+
+		private FrozenState(List<ModContainer> mods) {
+			Map<String, Optional<net.fabricmc.loader.api.ModContainer>> containers = new HashMap<>();
+			for (ModContainer mod : mods) {
+				containers.put(mod.getInfo().getId(), Optional.of(mod));
+			}
+
+			this.containers = Collections.unmodifiableMap(containers);
+			this.mods = Collections.unmodifiableList(new ArrayList<>(mods));
+			this.allMods = Collections.unmodifiableList(this.mods);
+		}
+	}
+
 	protected FabricLoader() {
 	}
 
@@ -76,6 +101,8 @@ public class FabricLoader implements net.fabricmc.loader.api.FabricLoader {
 		}
 
 		frozen = true;
+		frozenState = new FrozenState(mods);
+		ModProfiler.registerMods(mods);
 		finishModLoading();
 	}
 
@@ -137,6 +164,8 @@ public class FabricLoader implements net.fabricmc.loader.api.FabricLoader {
 			throw new RuntimeException("Frozen - cannot load additional mods!");
 		}
 
+		LoaderMetricsImpl.INSTANCE.register();
+
 		ModResolver resolver = new ModResolver();
 		resolver.addCandidateFinder(new ClasspathModCandidateFinder());
 		resolver.addCandidateFinder(new DirectoryModCandidateFinder(getModsDirectory().toPath()));
@@ -186,6 +215,11 @@ public class FabricLoader implements net.fabricmc.loader.api.FabricLoader {
 		return entrypointStorage.getEntrypoints(key, type);
 	}
 
+	@Override
+	public <T> List<EntrypointContainer<T>> getEntrypointContainers(String key, Class<T> type) {
+		return entrypointStorage.getEntrypointContainers(key, type);
+	}
+
 	@Override
 	public MappingResolver getMappingResolver() {
 		if (mappingResolver == null) {
@@ -198,21 +232,58 @@ public class FabricLoader implements net.fabricmc.loader.api.FabricLoader {
 		return mappingResolver;
 	}
 
+	boolean hasMappingResolver() {
+		return mappingResolver != null;
+	}
+
+	@Override
+	public MemberHandleResolver getMemberHandleResolver() {
+		if (memberHandleResolver == null) {
+			memberHandleResolver = new FabricMemberHandleResolver(
+				getMappingResolver(),
+				FabricLauncherBase.getLauncher()::getTargetClassLoader
+			);
+		}
+
+		return memberHandleResolver;
+	}
+
+	@Override
+	public LoaderMetrics getMetrics() {
+		return LoaderMetricsImpl.INSTANCE;
+	}
+
 	@Override
 	public Optional<net.fabricmc.loader.api.ModContainer> getModContainer(String id) {
+		FrozenState state = frozenState;
+		if (state != null) {
+			return state.containers.getOrDefault(id, Optional.empty());
+		}
+
 		return Optional.ofNullable(modMap.get(id));
 	}
 
 	@Override
 	public Collection<net.fabricmc.loader.api.ModContainer> getAllMods() {
-		return Collections.unmodifiableList(mods);
+		FrozenState state = frozenState;
+		return state != null ? state.allMods : Collections.unmodifiableList(mods);
 	}
 
 	@Override
 	public boolean isModLoaded(String id) {
+		FrozenState state = frozenState;
+		if (state != null) {
+			return state.containers.containsKey(id);
+		}
+
 		return modMap.containsKey(id);
 	}
 
+	private List<ModContainer> getModList() {
+		FrozenState state = frozenState;
+		return state != null ? state.mods : Collections.unmodifiableList(mods);
+	}
+
 	@Override
 	public boolean isDevelopmentEnvironment() {
 		return FabricLauncherBase.getLauncher().isDevelopment();
@@ -224,12 +295,12 @@ public class FabricLoader implements net.fabricmc.loader.api.FabricLoader {
 	 */
 	@Deprecated
 	public Collection<ModContainer> getModContainers() {
-		return Collections.unmodifiableList(mods);
+		return getModList();
 	}
 
 	@Deprecated
 	public List<ModContainer> getMods() {
-		return Collections.unmodifiableList(mods);
+		return getModList();
 	}
 
 	protected void addMod(ModCandidate candidate) {
@@ -376,6 +447,8 @@ public class FabricLoader implements net.fabricmc.loader.api.FabricLoader {
 				throw new RuntimeException(String.format("Failed to load mod %s (%s)", mod.getInfo().getName(), mod.getOriginUrl().getFile()), e);
 			}
 		}
+
+		entrypointStorage.freeze();
 	}
 
 	public Logger getLogger() {
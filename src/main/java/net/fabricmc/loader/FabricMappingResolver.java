@@ -17,23 +17,246 @@
 package net.fabricmc.loader;
 
 import net.fabricmc.loader.api.MappingResolver;
+import net.fabricmc.loader.util.LoaderMetricsImpl;
 import net.fabricmc.mappings.*;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.util.*;
-import java.util.function.Function;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 class FabricMappingResolver implements MappingResolver {
+	protected static Logger LOGGER = LogManager.getFormatterLogger("FabricLoader");
+
 	private final Supplier<Mappings> mappingsSupplier;
 	private final Set<String> namespaces;
-	private final Map<String, NamespaceData> namespaceDataMap = new HashMap<>();
+	private final Map<String, NamespaceData> namespaceDataMap = new ConcurrentHashMap<>();
 	private final String targetNamespace;
+	// Shared by all namespaces; only ever replaced by a superset with identical indices.
+	private volatile StringPool pool = new StringPool(16);
+
+	/**
+	 * Append-only string pool; every string is stored once and referred to by its index.
+	 * Instances are not modified after they have been published through {@link #pool}.
+	 */
+	static final class StringPool {
+		private String[] strings;
+		private int[] table;
+		private int size;
+
+		StringPool(int expectedSize) {
+			strings = new String[Math.max(expectedSize, 16)];
+			table = newTable(strings.length);
+		}
+
+		private StringPool(StringPool other, int extraSize) {
+			strings = Arrays.copyOf(other.strings, Math.max(other.size + extraSize, 16));
+			size = other.size;
+			table = newTable(strings.length);
+
+			for (int i = 0; i < size; i++) {
+				insert(i);
+			}
+		}
+
+		StringPool copy(int extraSize) {
+			return new StringPool(this, extraSize);
+		}
+
+		int size() {
+			return size;
+		}
+
+		String get(int index) {
+			return strings[index];
+		}
+
+		int indexOf(String s) {
+			int mask = table.length - 1;
+			int pos = mix(s.hashCode()) & mask;
+			int i;
+
+			while ((i = table[pos]) >= 0) {
+				if (strings[i].equals(s)) {
+					return i;
+				}
+
+				pos = (pos + 1) & mask;
+			}
+
+			return -1;
+		}
+
+		int add(String s) {
+			int index = indexOf(s);
+			if (index >= 0) {
+				return index;
+			}
+
+			if (size == strings.length) {
+				strings = Arrays.copyOf(strings, size * 2);
+				table = newTable(strings.length);
+
+				for (int i = 0; i < size; i++) {
+					insert(i);
+				}
+			}
+
+			strings[size] = s;
+			insert(size);
+			return size++;
+		}
+
+		private void insert(int index) {
+			int mask = table.length - 1;
+			int pos = mix(strings[index].hashCode()) & mask;
+
+			while (table[pos] >= 0) {
+				pos = (pos + 1) & mask;
+			}
+
+			table[pos] = index;
+		}
 
-	private static class NamespaceData {
-		private final Map<String, String> classNames = new HashMap<>();
-		private final Map<String, String> classNamesInverse = new HashMap<>();
-		private final Map<EntryTriple, String> fieldNames = new HashMap<>();
-		private final Map<EntryTriple, String> methodNames = new HashMap<>();
+		long getFootprint() {
+			return 4L * (strings.length + table.length);
+		}
+	}
+
+	/**
+	 * Open-addressing map from one pool index to another.
+	 */
+	static final class IndexMap {
+		private final int[] keys;
+		private final int[] values;
+		private int size;
+
+		IndexMap(int expectedSize) {
+			keys = newTable(expectedSize);
+			values = new int[keys.length];
+		}
+
+		void put(int key, int value) {
+			int mask = keys.length - 1;
+			int pos = mix(key) & mask;
+
+			while (keys[pos] >= 0 && keys[pos] != key) {
+				pos = (pos + 1) & mask;
+			}
+
+			if (keys[pos] < 0) {
+				keys[pos] = key;
+				size++;
+			}
+
+			values[pos] = value;
+		}
+
+		int get(int key) {
+			int mask = keys.length - 1;
+			int pos = mix(key) & mask;
+			int k;
+
+			while ((k = keys[pos]) >= 0) {
+				if (k == key) {
+					return values[pos];
+				}
+
+				pos = (pos + 1) & mask;
+			}
+
+			return -1;
+		}
+
+		int size() {
+			return size;
+		}
+
+		long getFootprint() {
+			return 4L * (keys.length + values.length);
+		}
+	}
+
+	/**
+	 * Open-addressing map from an (owner, name, descriptor) index triple to a pool index.
+	 */
+	static final class MemberMap {
+		private final int[] keys;
+		private final int[] values;
+		private int size;
+
+		MemberMap(int expectedSize) {
+			values = newTable(expectedSize);
+			keys = new int[values.length * 3];
+		}
+
+		void put(int owner, int name, int desc, int value) {
+			int mask = values.length - 1;
+			int pos = hash(owner, name, desc) & mask;
+
+			while (values[pos] >= 0 && !matches(pos, owner, name, desc)) {
+				pos = (pos + 1) & mask;
+			}
+
+			if (values[pos] < 0) {
+				keys[pos * 3] = owner;
+				keys[pos * 3 + 1] = name;
+				keys[pos * 3 + 2] = desc;
+				size++;
+			}
+
+			values[pos] = value;
+		}
+
+		int get(int owner, int name, int desc) {
+			int mask = values.length - 1;
+			int pos = hash(owner, name, desc) & mask;
+
+			while (values[pos] >= 0) {
+				if (matches(pos, owner, name, desc)) {
+					return values[pos];
+				}
+
+				pos = (pos + 1) & mask;
+			}
+
+			return -1;
+		}
+
+		private boolean matches(int pos, int owner, int name, int desc) {
+			return keys[pos * 3] == owner && keys[pos * 3 + 1] == name && keys[pos * 3 + 2] == desc;
+		}
+
+		private static int hash(int owner, int name, int desc) {
+			return mix((owner * 31 + name) * 31 + desc);
+		}
+
+		int size() {
+			return size;
+		}
+
+		long getFootprint() {
+			return 4L * (keys.length + values.length);
+		}
+	}
+
+	private static final class NamespaceData {
+		private final IndexMap classNames;
+		private final IndexMap classNamesInverse;
+		private final MemberMap fieldNames;
+		private final MemberMap methodNames;
+
+		private NamespaceData(int classCount, int fieldCount, int methodCount) {
+			classNames = new IndexMap(classCount);
+			classNamesInverse = new IndexMap(classCount);
+			fieldNames = new MemberMap(fieldCount);
+			methodNames = new MemberMap(methodCount);
+		}
+
+		private long getFootprint() {
+			return classNames.getFootprint() + classNamesInverse.getFootprint() + fieldNames.getFootprint() + methodNames.getFootprint();
+		}
 	}
 
 	FabricMappingResolver(Supplier<Mappings> mappingsSupplier, String targetNamespace) {
@@ -42,36 +265,91 @@ class FabricMappingResolver implements MappingResolver {
 		namespaces = Collections.unmodifiableSet(new HashSet<>(mappingsSupplier.get().getNamespaces()));
 	}
 
+	private static int mix(int h) {
+		h *= 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * @return A table of at least twice the expected size, rounded up to a power of two and filled with -1.
+	 */
+	private static int[] newTable(int expectedSize) {
+		int capacity = Integer.highestOneBit(Math.max(expectedSize, 2) * 2 - 1) << 1;
+		int[] table = new int[capacity];
+		Arrays.fill(table, -1);
+		return table;
+	}
+
 	protected final NamespaceData getNamespaceData(String namespace) {
-		return namespaceDataMap.computeIfAbsent(namespace, (ns) -> {
-			if (!namespaces.contains(namespace)) {
-				throw new IllegalArgumentException("Unknown namespace: " + namespace);
-			}
+		NamespaceData data = namespaceDataMap.get(namespace);
 
-			NamespaceData data = new NamespaceData();
-			Mappings mappings = mappingsSupplier.get();
-			Map<String, String> classNameMap = new HashMap<>();
-			Function<String, String> classMapper = (s) -> classNameMap.computeIfAbsent(s, (cname) -> cname.replace('/', '.'));
-			Function<EntryTriple, EntryTriple> tripletMapper = (s) -> new EntryTriple(classMapper.apply(s.getOwner()), s.getName(), s.getDesc());
+		if (data == null) {
+			synchronized (namespaceDataMap) {
+				data = namespaceDataMap.get(namespace);
 
-			for (ClassEntry classEntry : mappings.getClassEntries()) {
-				String fromClass = classMapper.apply(classEntry.get(ns));
-				String toClass = classMapper.apply(classEntry.get(targetNamespace));
+				if (data == null) {
+					if (!namespaces.contains(namespace)) {
+						throw new IllegalArgumentException("Unknown namespace: " + namespace);
+					}
 
-				data.classNames.put(fromClass, toClass);
-				data.classNamesInverse.put(toClass, fromClass);
+					data = createNamespaceData(namespace);
+					namespaceDataMap.put(namespace, data);
+				}
 			}
+		}
 
-			for (FieldEntry fieldEntry : mappings.getFieldEntries()) {
-				data.fieldNames.put(tripletMapper.apply(fieldEntry.get(ns)), fieldEntry.get(targetNamespace).getName());
-			}
+		return data;
+	}
 
-			for (MethodEntry methodEntry : mappings.getMethodEntries()) {
-				data.methodNames.put(tripletMapper.apply(methodEntry.get(ns)), methodEntry.get(targetNamespace).getName());
-			}
+	private NamespaceData createNamespaceData(String ns) {
+		long time = System.currentTimeMillis();
+		Mappings mappings = mappingsSupplier.get();
+		Collection<ClassEntry> classEntries = mappings.getClassEntries();
+		Collection<FieldEntry> fieldEntries = mappings.getFieldEntries();
+		Collection<MethodEntry> methodEntries = mappings.getMethodEntries();
+
+		NamespaceData data = new NamespaceData(classEntries.size(), fieldEntries.size(), methodEntries.size());
+		StringPool newPool = pool.copy(classEntries.size() * 2 + fieldEntries.size() + methodEntries.size() * 2);
+		Map<String, Integer> classIndices = new HashMap<>();
+
+		for (ClassEntry classEntry : classEntries) {
+			int fromClass = addClassName(newPool, classIndices, classEntry.get(ns));
+			int toClass = addClassName(newPool, classIndices, classEntry.get(targetNamespace));
+
+			data.classNames.put(fromClass, toClass);
+			data.classNamesInverse.put(toClass, fromClass);
+		}
+
+		for (FieldEntry fieldEntry : fieldEntries) {
+			EntryTriple from = fieldEntry.get(ns);
+			data.fieldNames.put(
+				addClassName(newPool, classIndices, from.getOwner()), newPool.add(from.getName()), newPool.add(from.getDesc()),
+				newPool.add(fieldEntry.get(targetNamespace).getName())
+			);
+		}
+
+		for (MethodEntry methodEntry : methodEntries) {
+			EntryTriple from = methodEntry.get(ns);
+			data.methodNames.put(
+				addClassName(newPool, classIndices, from.getOwner()), newPool.add(from.getName()), newPool.add(from.getDesc()),
+				newPool.add(methodEntry.get(targetNamespace).getName())
+			);
+		}
+
+		// Publish the pool before the namespace data, so that any thread which can
+		// see the namespace data also sees every string index it refers to.
+		pool = newPool;
 
-			return data;
-		});
+		LOGGER.debug("Built mapping resolver tables for namespace %s in %d ms: %d classes, %d fields, %d methods, %d pooled strings, ~%d KiB of tables (string pool ~%d KiB)",
+			ns, System.currentTimeMillis() - time,
+			data.classNames.size(), data.fieldNames.size(), data.methodNames.size(), newPool.size(),
+			data.getFootprint() / 1024, newPool.getFootprint() / 1024);
+
+		return data;
+	}
+
+	private static int addClassName(StringPool pool, Map<String, Integer> classIndices, String className) {
+		return classIndices.computeIfAbsent(className, (cname) -> pool.add(cname.replace('/', '.')));
 	}
 
 	@Override
@@ -90,7 +368,7 @@ class FabricMappingResolver implements MappingResolver {
 			throw new IllegalArgumentException("Class names must be provided in dot format: " + className);
 		}
 
-		return getNamespaceData(namespace).classNames.getOrDefault(className, className);
+		return mapClass(getNamespaceData(namespace).classNames, className);
 	}
 
 	@Override
@@ -99,7 +377,7 @@ class FabricMappingResolver implements MappingResolver {
 			throw new IllegalArgumentException("Class names must be provided in dot format: " + className);
 		}
 
-		return getNamespaceData(namespace).classNamesInverse.getOrDefault(className, className);
+		return mapClass(getNamespaceData(namespace).classNamesInverse, className);
 	}
 
 	@Override
@@ -108,7 +386,7 @@ class FabricMappingResolver implements MappingResolver {
 			throw new IllegalArgumentException("Class names must be provided in dot format: " + owner);
 		}
 
-		return getNamespaceData(namespace).fieldNames.getOrDefault(new EntryTriple(owner, name, descriptor), name);
+		return mapMember(getNamespaceData(namespace).fieldNames, owner, name, descriptor);
 	}
 
 	@Override
@@ -117,6 +395,35 @@ class FabricMappingResolver implements MappingResolver {
 			throw new IllegalArgumentException("Class names must be provided in dot format: " + owner);
 		}
 
-		return getNamespaceData(namespace).methodNames.getOrDefault(new EntryTriple(owner, name, descriptor), name);
+		return mapMember(getNamespaceData(namespace).methodNames, owner, name, descriptor);
+	}
+
+	private String mapClass(IndexMap map, String className) {
+		StringPool pool = this.pool;
+		int index = pool.indexOf(className);
+		if (index < 0) {
+			LoaderMetricsImpl.INSTANCE.onMappingLookup(false);
+			return className;
+		}
+
+		int result = map.get(index);
+		LoaderMetricsImpl.INSTANCE.onMappingLookup(result >= 0);
+		return result >= 0 ? pool.get(result) : className;
+	}
+
+	private String mapMember(MemberMap map, String owner, String name, String descriptor) {
+		StringPool pool = this.pool;
+		int ownerIndex, nameIndex, descIndex;
+
+		if ((ownerIndex = pool.indexOf(owner)) < 0
+			|| (nameIndex = pool.indexOf(name)) < 0
+			|| (descIndex = pool.indexOf(descriptor)) < 0) {
+			LoaderMetricsImpl.INSTANCE.onMappingLookup(false);
+			return name;
+		}
+
+		int result = map.get(ownerIndex, nameIndex, descIndex);
+		LoaderMetricsImpl.INSTANCE.onMappingLookup(result >= 0);
+		return result >= 0 ? pool.get(result) : name;
 	}
 }
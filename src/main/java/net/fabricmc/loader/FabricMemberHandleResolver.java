@@ -0,0 +1,244 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader;
+
+import net.fabricmc.loader.api.MappingResolver;
+import net.fabricmc.loader.api.MemberHandleResolver;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+class FabricMemberHandleResolver implements MemberHandleResolver {
+	private enum Kind {
+		METHOD,
+		CONSTRUCTOR,
+		GETTER,
+		SETTER
+	}
+
+	private static final class Key {
+		private final Kind kind;
+		private final String namespace, owner, name, descriptor;
+		private final int hash;
+
+		private Key(Kind kind, String namespace, String owner, String name, String descriptor) {
+			this.kind = kind;
+			this.namespace = namespace;
+			this.owner = owner;
+			this.name = name;
+			this.descriptor = descriptor;
+			this.hash = Objects.hash(kind, namespace, owner, name, descriptor);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof Key)) {
+				return false;
+			}
+
+			Key key = (Key) other;
+			return kind == key.kind && namespace.equals(key.namespace) && owner.equals(key.owner) && name.equals(key.name) && descriptor.equals(key.descriptor);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public String toString() {
+			return kind.name().toLowerCase() + " " + namespace + ":" + owner + "." + name + descriptor;
+		}
+	}
+
+	private final MappingResolver mappingResolver;
+	private final Supplier<ClassLoader> classLoaderSupplier;
+	private final Map<Key, MethodHandle> handles = new ConcurrentHashMap<>();
+
+	FabricMemberHandleResolver(MappingResolver mappingResolver, Supplier<ClassLoader> classLoaderSupplier) {
+		this.mappingResolver = mappingResolver;
+		this.classLoaderSupplier = classLoaderSupplier;
+	}
+
+	@Override
+	public MethodHandle getMethod(String namespace, String owner, String name, String descriptor) {
+		return get(new Key(Kind.METHOD, namespace, owner, name, descriptor));
+	}
+
+	@Override
+	public MethodHandle getConstructor(String namespace, String owner, String descriptor) {
+		return get(new Key(Kind.CONSTRUCTOR, namespace, owner, "<init>", descriptor));
+	}
+
+	@Override
+	public MethodHandle getFieldGetter(String namespace, String owner, String name, String descriptor) {
+		return get(new Key(Kind.GETTER, namespace, owner, name, descriptor));
+	}
+
+	@Override
+	public MethodHandle getFieldSetter(String namespace, String owner, String name, String descriptor) {
+		return get(new Key(Kind.SETTER, namespace, owner, name, descriptor));
+	}
+
+	private MethodHandle get(Key key) {
+		MethodHandle handle = handles.get(key);
+
+		if (handle == null) {
+			try {
+				handle = resolve(key);
+			} catch (ReflectiveOperationException | RuntimeException e) {
+				throw new IllegalArgumentException("Could not resolve " + key + "!", e);
+			}
+
+			MethodHandle existing = handles.putIfAbsent(key, handle);
+			if (existing != null) {
+				handle = existing;
+			}
+		}
+
+		return handle;
+	}
+
+	private MethodHandle resolve(Key key) throws ReflectiveOperationException {
+		if (key.owner.indexOf('/') >= 0) {
+			throw new IllegalArgumentException("Class names must be provided in dot format: " + key.owner);
+		}
+
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		Class<?> owner = loadClass(mappingResolver.mapClassName(key.namespace, key.owner));
+
+		switch (key.kind) {
+			case METHOD: {
+				Method method = findMethod(owner, mappingResolver.mapMethodName(key.namespace, key.owner, key.name, key.descriptor), key.namespace, key.descriptor);
+				method.setAccessible(true);
+				return lookup.unreflect(method);
+			}
+			case CONSTRUCTOR: {
+				Constructor<?> constructor = owner.getDeclaredConstructor(getParameterTypes(key.namespace, key.descriptor));
+				constructor.setAccessible(true);
+				return lookup.unreflectConstructor(constructor);
+			}
+			case GETTER:
+			case SETTER: {
+				Field field = findField(owner, mappingResolver.mapFieldName(key.namespace, key.owner, key.name, key.descriptor), key.namespace, key.descriptor);
+				field.setAccessible(true);
+				return key.kind == Kind.GETTER ? lookup.unreflectGetter(field) : lookup.unreflectSetter(field);
+			}
+			default:
+				throw new IllegalStateException(key.kind.name());
+		}
+	}
+
+	private Method findMethod(Class<?> owner, String name, String namespace, String descriptor) throws ReflectiveOperationException {
+		Class<?>[] parameterTypes = getParameterTypes(namespace, descriptor);
+		Class<?> returnType = getType(namespace, Type.getReturnType(descriptor));
+
+		for (Class<?> c = owner; c != null; c = c.getSuperclass()) {
+			try {
+				Method method = c.getDeclaredMethod(name, parameterTypes);
+				if (method.getReturnType() == returnType) {
+					return method;
+				}
+			} catch (NoSuchMethodException e) {
+				// try the superclass
+			}
+		}
+
+		// inherited interface methods
+		Method method = owner.getMethod(name, parameterTypes);
+		if (method.getReturnType() != returnType) {
+			throw new NoSuchMethodException(owner.getName() + "." + name + descriptor);
+		}
+
+		return method;
+	}
+
+	private Field findField(Class<?> owner, String name, String namespace, String descriptor) throws ReflectiveOperationException {
+		Class<?> type = getType(namespace, Type.getType(descriptor));
+
+		for (Class<?> c = owner; c != null; c = c.getSuperclass()) {
+			try {
+				Field field = c.getDeclaredField(name);
+				if (field.getType() == type) {
+					return field;
+				}
+			} catch (NoSuchFieldException e) {
+				// try the superclass
+			}
+		}
+
+		throw new NoSuchFieldException(owner.getName() + "." + name + ":" + descriptor);
+	}
+
+	private Class<?>[] getParameterTypes(String namespace, String descriptor) throws ClassNotFoundException {
+		Type[] types = Type.getArgumentTypes(descriptor);
+		Class<?>[] classes = new Class<?>[types.length];
+
+		for (int i = 0; i < types.length; i++) {
+			classes[i] = getType(namespace, types[i]);
+		}
+
+		return classes;
+	}
+
+	private Class<?> getType(String namespace, Type type) throws ClassNotFoundException {
+		switch (type.getSort()) {
+			case Type.VOID:
+				return void.class;
+			case Type.BOOLEAN:
+				return boolean.class;
+			case Type.CHAR:
+				return char.class;
+			case Type.BYTE:
+				return byte.class;
+			case Type.SHORT:
+				return short.class;
+			case Type.INT:
+				return int.class;
+			case Type.FLOAT:
+				return float.class;
+			case Type.LONG:
+				return long.class;
+			case Type.DOUBLE:
+				return double.class;
+			case Type.ARRAY: {
+				Class<?> c = getType(namespace, type.getElementType());
+				for (int i = 0; i < type.getDimensions(); i++) {
+					c = Array.newInstance(c, 0).getClass();
+				}
+				return c;
+			}
+			case Type.OBJECT:
+				return loadClass(mappingResolver.mapClassName(namespace, type.getClassName()));
+			default:
+				throw new IllegalArgumentException("Invalid type in descriptor: " + type);
+		}
+	}
+
+	private Class<?> loadClass(String name) throws ClassNotFoundException {
+		return Class.forName(name, false, classLoaderSupplier.get());
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader;
+
+import net.fabricmc.loader.discovery.ModResolver;
+import net.fabricmc.loader.entrypoint.EntrypointTransformer;
+import net.fabricmc.loader.launch.common.ClassBytecodeCache;
+import net.fabricmc.loader.launch.common.FabricLauncher;
+import net.fabricmc.loader.launch.common.FabricLauncherBase;
+import net.fabricmc.loader.metadata.ModMetadataParser;
+import net.fabricmc.loader.util.version.SemanticVersionPredicateParser;
+import net.fabricmc.loader.util.version.VersionDeserializer;
+import net.fabricmc.mappings.Mappings;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Releases the structures only needed to launch the game, once the mods have been initialized.
+ *
+ * Everything released here is either recreated on demand (mappings, caches) or belongs to mod
+ * candidates which were not loaded. Disabled through "fabric.loader.reclaimAfterLaunch"; with
+ * "fabric.loader.reclaimAfterLaunch.gc" the logged heap usage is measured around a full GC.
+ */
+public final class LaunchReclaimer {
+	protected static Logger LOGGER = LogManager.getFormatterLogger("FabricLoader|Reclaim");
+
+	private static boolean reclaimed;
+
+	private LaunchReclaimer() {
+
+	}
+
+	public static synchronized void reclaim() {
+		if (reclaimed || !Boolean.parseBoolean(System.getProperty("fabric.loader.reclaimAfterLaunch", "true"))) {
+			return;
+		}
+
+		reclaimed = true;
+
+		boolean gc = Boolean.parseBoolean(System.getProperty("fabric.loader.reclaimAfterLaunch.gc", "false"));
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		if (gc) {
+			System.gc();
+		}
+
+		long heapBefore = memory.getHeapMemoryUsage().getUsed();
+		long time = System.currentTimeMillis();
+
+		FabricLoader loader = FabricLoader.INSTANCE;
+		FabricLauncher launcher = FabricLauncherBase.getLauncher();
+
+		List<URL> loadedUrls = new ArrayList<>();
+		for (net.fabricmc.loader.api.ModContainer mod : loader.getAllMods()) {
+			loadedUrls.add(((ModContainer) mod).getOriginUrl());
+		}
+
+		long[] candidates = ModResolver.releaseUnusedCandidates(loadedUrls);
+		long patchedBytes = EntrypointTransformer.INSTANCE.releaseLoadedClasses(launcher);
+		long preTransformedBytes = launcher.releasePreTransformedClasses();
+
+		long cachedBytes = ClassBytecodeCache.INSTANCE.getSize();
+		ClassBytecodeCache.INSTANCE.clear();
+
+		int mappingEntries = 0;
+		if (!loader.hasMappingResolver()) {
+			Mappings mappings = launcher.getMappingConfiguration().release();
+
+			if (mappings != null) {
+				mappingEntries = mappings.getClassEntries().size() + mappings.getFieldEntries().size() + mappings.getMethodEntries().size();
+			}
+		}
+
+		int internedEntries = ModMetadataParser.clearCaches() + VersionDeserializer.clearCache() + SemanticVersionPredicateParser.clearCache();
+
+		if (gc) {
+			System.gc();
+		}
+
+		long heapAfter = memory.getHeapMemoryUsage().getUsed();
+
+		LOGGER.info("Released launch state in %d ms: %d KiB of unused nested JARs, %d released archive handles, %d KiB of patched classes, %d KiB of pre-transformed classes, %d KiB of cached bytecode, %d mapping entries, %d interned entries; heap %d MiB -> %d MiB%s",
+			System.currentTimeMillis() - time, candidates[1] / 1024, candidates[0], patchedBytes / 1024, preTransformedBytes / 1024, cachedBytes / 1024,
+			mappingEntries, internedEntries, heapBefore >> 20, heapAfter >> 20, gc ? "" : " (without GC)");
+	}
+}
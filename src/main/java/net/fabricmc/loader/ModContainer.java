@@ -21,16 +21,26 @@ import net.fabricmc.loader.metadata.LoaderModMetadata;
 import net.fabricmc.loader.util.FileSystemUtil;
 import net.fabricmc.loader.util.UrlConversionException;
 import net.fabricmc.loader.util.UrlUtil;
+import net.fabricmc.loader.util.archive.Archive;
+import net.fabricmc.loader.util.archive.ArchiveRegistry;
 
 import java.io.IOException;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class ModContainer implements net.fabricmc.loader.api.ModContainer {
 	private final LoaderModMetadata info;
 	private final URL originUrl;
-	private Path root;
+	private Path holder;
+	// entry index of a JAR mod, serving the bulk reads; null for directories
+	private Archive archive;
+	private volatile Path root;
 
 	public ModContainer(LoaderModMetadata info, URL originUrl) {
 		this.info = info;
@@ -38,23 +48,17 @@ public class ModContainer implements net.fabricmc.loader.api.ModContainer {
 	}
 
 	void instantiate() {
-		if (root != null) {
+		if (holder != null) {
 			throw new RuntimeException("Not allowed to instantiate twice!");
 		}
 
 		try {
-			Path holder = UrlUtil.asPath(originUrl).toAbsolutePath();
+			holder = UrlUtil.asPath(originUrl).toAbsolutePath();
 			if (Files.isDirectory(holder)) {
-				root = holder.toAbsolutePath();
+				root = holder;
 			} else /* JAR */ {
-				FileSystemUtil.FileSystemDelegate delegate = FileSystemUtil.getJarFileSystem(holder, false);
-				if (delegate.get() == null) {
-					throw new RuntimeException("Could not open JAR file " + holder.getFileName() + " for NIO reading!");
-				}
-
-				root = delegate.get().getRootDirectories().iterator().next();
-
-				// We never close here. It's fine. getJarFileSystem() will handle it gracefully, and so should mods
+				// the NIO file system is only opened once the root path is first requested
+				archive = ArchiveRegistry.acquire(holder);
 			}
 		} catch (IOException | UrlConversionException e) {
 			throw new RuntimeException("Failed to find root directory for mod '" + info.getId() + "'!", e);
@@ -68,12 +72,71 @@ public class ModContainer implements net.fabricmc.loader.api.ModContainer {
 
 	@Override
 	public Path getRootPath() {
-		if (root == null) {
+		if (holder == null) {
 			throw new RuntimeException("Accessed mod root before primary loader!");
 		}
+
+		Path root = this.root;
+		if (root == null) {
+			synchronized (this) {
+				root = this.root;
+
+				if (root == null) {
+					try {
+						FileSystemUtil.FileSystemDelegate delegate = FileSystemUtil.getJarFileSystem(holder, false);
+						if (delegate.get() == null) {
+							throw new RuntimeException("Could not open JAR file " + holder.getFileName() + " for NIO reading!");
+						}
+
+						this.root = root = delegate.get().getRootDirectories().iterator().next();
+
+						// We never close here. It's fine. getJarFileSystem() will handle it gracefully, and so should mods
+					} catch (IOException e) {
+						throw new RuntimeException("Failed to find root directory for mod '" + info.getId() + "'!", e);
+					}
+				}
+			}
+		}
+
 		return root;
 	}
 
+	@Override
+	public List<String> listFiles(String prefix) throws IOException {
+		if (archive == null) {
+			return net.fabricmc.loader.api.ModContainer.super.listFiles(prefix);
+		}
+
+		List<Archive.Entry> entries = archive.getEntries(prefix.startsWith("/") ? prefix.substring(1) : prefix);
+		List<String> ret = new ArrayList<>(entries.size());
+
+		for (Archive.Entry entry : entries) {
+			if (!entry.isDirectory()) {
+				ret.add(entry.getName());
+			}
+		}
+
+		return ret;
+	}
+
+	@Override
+	public Map<String, byte[]> readFiles(Collection<String> files) throws IOException {
+		if (archive == null) {
+			return net.fabricmc.loader.api.ModContainer.super.readFiles(files);
+		}
+
+		Map<String, byte[]> ret = new HashMap<>();
+
+		for (String file : files) {
+			Archive.Entry entry = archive.getEntry(file.startsWith("/") ? file.substring(1) : file);
+			if (entry != null && !entry.isDirectory()) {
+				ret.put(file, archive.read(entry));
+			}
+		}
+
+		return ret;
+	}
+
 	public LoaderModMetadata getInfo() {
 		return info;
 	}
@@ -39,6 +39,14 @@ public interface FabricLoader {
 
 	<T> List<T> getEntrypoints(String key, Class<T> type);
 
+	/**
+	 * Get all entrypoints of a given key and type, together with the mods providing them.
+	 * @param key The entrypoint key.
+	 * @param type The entrypoint type.
+	 * @return The entrypoint containers, in mod loading order.
+	 */
+	<T> List<EntrypointContainer<T>> getEntrypointContainers(String key, Class<T> type);
+
 	/**
 	 * Get the current mapping resolver.
 	 * @return The current mapping resolver instance.
@@ -46,6 +54,19 @@ public interface FabricLoader {
 	 */
 	MappingResolver getMappingResolver();
 
+	/**
+	 * Get the member handle resolver, which provides cached method handles
+	 * to members referenced in any mapping namespace.
+	 * @return The current member handle resolver instance.
+	 */
+	MemberHandleResolver getMemberHandleResolver();
+
+	/**
+	 * Get the loader's live counters, which are also exposed over JMX.
+	 * @return The loader metrics.
+	 */
+	LoaderMetrics getMetrics();
+
 	/**
 	 * Gets the container for a given mod.
 	 * @param id The ID of the mod.
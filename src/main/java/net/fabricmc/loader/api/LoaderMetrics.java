@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.api;
+
+/**
+ * Live counters describing the work done by the loader.
+ *
+ * The counters are cheap to update and always enabled. They are also exposed
+ * over JMX under the object name {@value #OBJECT_NAME}, unless the system
+ * property "fabric.loader.jmx" is set to false.
+ */
+public interface LoaderMetrics {
+	String OBJECT_NAME = "net.fabricmc.loader:type=LoaderMetrics";
+
+	/**
+	 * @return The number of classes defined by the Knot class loader.
+	 */
+	long getClassesDefined();
+
+	/**
+	 * @return The number of class lookups for which Knot had no class data, and which were passed on to the parent class loader.
+	 */
+	long getNegativeLookups();
+
+	/**
+	 * @return The total number of class file bytes read through Knot.
+	 */
+	long getBytesRead();
+
+	/**
+	 * @return The total number of class bytes produced by the transformers.
+	 */
+	long getBytesTransformed();
+
+	/**
+	 * @return The number of classes which were modified or generated by Mixin.
+	 */
+	long getMixinTransformedClasses();
+
+	/**
+	 * @return The number of classes which Mixin passed through unchanged.
+	 */
+	long getMixinBypassedClasses();
+
+	/**
+	 * @return The total time spent loading and defining classes in Knot, in nanoseconds.
+	 */
+	long getClassLoadTimeNanos();
+
+	/**
+	 * @return The inclusive upper bounds of the class load time histogram buckets, in microseconds.
+	 * The histogram has one more bucket, for all longer loads.
+	 */
+	long[] getClassLoadTimeHistogramBounds();
+
+	/**
+	 * @return The number of class loads in each bucket of the class load time histogram.
+	 */
+	long[] getClassLoadTimeHistogram();
+
+	/**
+	 * @return The number of lookups performed by the {@link MappingResolver}.
+	 */
+	long getMappingLookups();
+
+	/**
+	 * @return The number of {@link MappingResolver} lookups for which a mapping existed.
+	 */
+	long getMappingHits();
+
+	/**
+	 * @return The number of member lookups served from the mixin remapper's cache.
+	 */
+	long getMixinRemapperCacheHits();
+
+	/**
+	 * @return The number of member lookups which missed the mixin remapper's cache.
+	 */
+	long getMixinRemapperCacheMisses();
+
+	/**
+	 * @return The fraction of mixin remapper member lookups served from its cache, between 0 and 1.
+	 */
+	double getMixinRemapperCacheHitRate();
+
+	/**
+	 * @return The number of class byte lookups served from the class bytecode cache.
+	 */
+	long getBytecodeCacheHits();
+
+	/**
+	 * @return The number of class byte lookups which missed the class bytecode cache.
+	 */
+	long getBytecodeCacheMisses();
+
+	/**
+	 * @return The time spent discovering mod candidates, in milliseconds.
+	 */
+	long getModDiscoveryTimeMillis();
+
+	/**
+	 * @return The time spent resolving the set of mods to load, in milliseconds.
+	 */
+	long getModResolutionTimeMillis();
+
+	/**
+	 * @return The number of JAR archives currently held open by the loader.
+	 */
+	int getOpenArchives();
+
+	/**
+	 * @return The number of unreleased handles to the open JAR archives.
+	 */
+	long getOpenArchiveHandles();
+
+	/**
+	 * @return The estimated memory retained by the central directories of the open JAR archives, in bytes.
+	 */
+	long getArchiveDirectoryBytes();
+}
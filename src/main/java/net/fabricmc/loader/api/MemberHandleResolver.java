@@ -0,0 +1,82 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.api;
+
+import java.lang.invoke.MethodHandle;
+
+/**
+ * Helper class for obtaining accessible method handles to game members
+ * referenced by a mapped name.
+ *
+ * All references are mapped to the namespace Loader is currently operating
+ * in using the {@link MappingResolver}. Resolution and access checks are
+ * performed once per target; subsequent calls return the same handle.
+ *
+ * For the JIT to treat a handle as a constant, store it in a
+ * {@code static final} field.
+ */
+public interface MemberHandleResolver {
+	/**
+	 * Get a handle to a method. Instance methods take the receiver as their
+	 * first parameter.
+	 *
+	 * @param namespace The namespace of the provided names.
+	 * @param owner The owner of the method, in dot-format ("mypackage.MyClass$Inner").
+	 * @param name The name of the method.
+	 * @param descriptor The descriptor of the method, in the provided namespace.
+	 * @return The method handle.
+	 * @throws IllegalArgumentException If the method could not be found or made accessible.
+	 */
+	MethodHandle getMethod(String namespace, String owner, String name, String descriptor);
+
+	/**
+	 * Get a handle to a constructor, returning the newly created instance.
+	 *
+	 * @param namespace The namespace of the provided names.
+	 * @param owner The class to construct, in dot-format ("mypackage.MyClass$Inner").
+	 * @param descriptor The descriptor of the constructor, in the provided namespace.
+	 * @return The method handle.
+	 * @throws IllegalArgumentException If the constructor could not be found or made accessible.
+	 */
+	MethodHandle getConstructor(String namespace, String owner, String descriptor);
+
+	/**
+	 * Get a handle reading a field. Instance field getters take the receiver
+	 * as their only parameter.
+	 *
+	 * @param namespace The namespace of the provided names.
+	 * @param owner The owner of the field, in dot-format ("mypackage.MyClass$Inner").
+	 * @param name The name of the field.
+	 * @param descriptor The descriptor of the field, in the provided namespace.
+	 * @return The method handle.
+	 * @throws IllegalArgumentException If the field could not be found or made accessible.
+	 */
+	MethodHandle getFieldGetter(String namespace, String owner, String name, String descriptor);
+
+	/**
+	 * Get a handle writing a field. Instance field setters take the receiver
+	 * as their first parameter. Static final fields can not be written.
+	 *
+	 * @param namespace The namespace of the provided names.
+	 * @param owner The owner of the field, in dot-format ("mypackage.MyClass$Inner").
+	 * @param name The name of the field.
+	 * @param descriptor The descriptor of the field, in the provided namespace.
+	 * @return The method handle.
+	 * @throws IllegalArgumentException If the field could not be found or made accessible.
+	 */
+	MethodHandle getFieldSetter(String namespace, String owner, String name, String descriptor);
+}
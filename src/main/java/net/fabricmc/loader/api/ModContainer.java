@@ -18,7 +18,15 @@ package net.fabricmc.loader.api;
 
 import net.fabricmc.loader.api.metadata.ModMetadata;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public interface ModContainer {
 	ModMetadata getMetadata();
@@ -41,4 +49,51 @@ public interface ModContainer {
 		Path root = getRootPath();
 		return root.resolve(file.replace("/", root.getFileSystem().getSeparator()));
 	}
+
+	/**
+	 * List the files inside the JAR whose location starts with a prefix, without resolving a Path for each.
+	 *
+	 * @param prefix The start of the locations from root, using "/" as a separator, f.e. "data/modid/".
+	 *               A leading "/" is ignored, and an empty prefix lists every file.
+	 * @return The locations of the matching files from root, using "/" as a separator and without a leading "/".
+	 */
+	default List<String> listFiles(String prefix) throws IOException {
+		String filePrefix = prefix.startsWith("/") ? prefix.substring(1) : prefix;
+		Path root = getRootPath();
+		String separator = root.getFileSystem().getSeparator();
+		Path dir = getPath(filePrefix.substring(0, filePrefix.lastIndexOf('/') + 1));
+		List<String> ret = new ArrayList<>();
+
+		if (Files.isDirectory(dir)) {
+			try (Stream<Path> stream = Files.walk(dir)) {
+				stream.filter(Files::isRegularFile).forEach((path) -> {
+					String file = root.relativize(path).toString().replace(separator, "/");
+					if (file.startsWith(filePrefix)) {
+						ret.add(file);
+					}
+				});
+			}
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Read many files inside the JAR at once.
+	 *
+	 * @param files The locations of the files from root, using "/" as a separator. A leading "/" is ignored.
+	 * @return The contents of the files which exist, keyed by the locations as passed in.
+	 */
+	default Map<String, byte[]> readFiles(Collection<String> files) throws IOException {
+		Map<String, byte[]> ret = new HashMap<>();
+
+		for (String file : files) {
+			Path path = getPath(file.startsWith("/") ? file.substring(1) : file);
+			if (Files.isRegularFile(path)) {
+				ret.put(file, Files.readAllBytes(path));
+			}
+		}
+
+		return ret;
+	}
 }
@@ -27,9 +27,12 @@ import net.fabricmc.loader.launch.common.FabricLauncherBase;
 import net.fabricmc.loader.metadata.LoaderModMetadata;
 import net.fabricmc.loader.metadata.ModMetadataParser;
 import net.fabricmc.loader.metadata.NestedJarEntry;
-import net.fabricmc.loader.util.FileSystemUtil;
+import net.fabricmc.loader.util.LoaderMetricsImpl;
+import net.fabricmc.loader.util.StartupTimeline;
 import net.fabricmc.loader.util.UrlConversionException;
 import net.fabricmc.loader.util.UrlUtil;
+import net.fabricmc.loader.util.archive.Archive;
+import net.fabricmc.loader.util.archive.ArchiveRegistry;
 import net.fabricmc.loader.util.sat4j.core.VecInt;
 import net.fabricmc.loader.util.sat4j.minisat.SolverFactory;
 import net.fabricmc.loader.util.sat4j.specs.TimeoutException;
@@ -64,6 +67,8 @@ public class ModResolver {
 			.build()
 	);
 	private static final Map<URL, List<Path>> inMemoryCache = new ConcurrentHashMap<>();
+	// archive handles held by discovery, by normalized URL; released once resolution is done
+	private static final Map<String, Archive> candidateArchives = new ConcurrentHashMap<>();
 	private static final Pattern MOD_ID_PATTERN = Pattern.compile("[a-z][a-z0-9-_]{1,63}");
 	private static final Object launcherSyncObject = new Object();
 
@@ -310,7 +315,7 @@ public class ModResolver {
 
 		@Override
 		protected void compute() {
-			FileSystemUtil.FileSystemDelegate jarFs;
+			Archive archive = null;
 			Path path, modJson, okyModJson, rootDir;
 			URL normalizedUrl;
 
@@ -337,25 +342,29 @@ public class ModResolver {
 					}
 				}
 			} else {
-				// JAR file
+				// JAR file, read through the shared archive registry
 				try {
-					jarFs = FileSystemUtil.getJarFileSystem(path, false);
-					modJson = jarFs.get().getPath("fabric.mod.json");
-					okyModJson = jarFs.get().getPath("okyanus.json");
-					rootDir = jarFs.get().getRootDirectories().iterator().next();
+					archive = ArchiveRegistry.acquire(path);
 				} catch (IOException e) {
-					throw new RuntimeException("Failed to open mod JAR at " + path + "!");
+					throw new RuntimeException("Failed to open mod JAR at " + path + "!", e);
 				}
+
+				if (candidateArchives.putIfAbsent(normalizedUrl.toString(), archive) != null) {
+					// already held for an earlier action on the same JAR
+					archive.release();
+				}
+
+				modJson = okyModJson = rootDir = null;
 			}
 
 			LoaderModMetadata[] info;
 
-			try (InputStream stream = Files.newInputStream(modJson)) {
+			try (InputStream stream = openFile(archive, modJson, "fabric.mod.json")) {
 				info = ModMetadataParser.getMods(loader, stream);
 			} catch (JsonSyntaxException e) {
 				throw new RuntimeException("Mod at '" + path + "' has an invalid fabric.mod.json file!", e);
 			} catch (NoSuchFileException e) {
-				try (InputStream stream = Files.newInputStream(okyModJson)) {
+				try (InputStream stream = openFile(archive, okyModJson, "okyanus.json")) {
 					info = ModMetadataParser.getMods(loader, stream);
 				} catch (JsonSyntaxException e1) {
 					throw new RuntimeException("Mod at '" + path + "' has an invalid okyanus.json file!", e1);
@@ -368,6 +377,8 @@ public class ModResolver {
 				throw new RuntimeException("Failed to open fabric.mod.json for mod at '" + path + "'!", e);
 			}
 
+			Archive fArchive = archive;
+
 			for (LoaderModMetadata i : info) {
 				ModCandidate candidate = new ModCandidate(i, normalizedUrl, depth);
 				boolean added;
@@ -396,23 +407,41 @@ public class ModResolver {
 						Collection<NestedJarEntry> jars = candidate.getInfo().getJars();
 						List<Path> list = new ArrayList<>(jars.size());
 
-						jars.stream()
-							.map((j) -> rootDir.resolve(j.getFile().replace("/", rootDir.getFileSystem().getSeparator())))
-							.forEach((modPath) -> {
-								if (!Files.isDirectory(modPath) && modPath.toString().endsWith(".jar")) {
-									// TODO: pre-check the JAR before loading it, if possible
-									loader.getLogger().debug("Found nested JAR: " + modPath);
-									Path dest = inMemoryFs.getPath(UUID.randomUUID() + ".jar");
+						for (NestedJarEntry jar : jars) {
+							String file = jar.getFile();
+							if (file.endsWith("/") || !file.endsWith(".jar")) {
+								continue;
+							}
 
-									try {
-										Files.copy(modPath, dest);
-									} catch (IOException e) {
-										throw new RuntimeException("Failed to load nested JAR " + modPath + " into memory (" + dest + ")!", e);
+							// TODO: pre-check the JAR before loading it, if possible
+							Path dest = inMemoryFs.getPath(UUID.randomUUID() + ".jar");
+
+							try {
+								if (fArchive != null) {
+									Archive.Entry entry = fArchive.getEntry(file.startsWith("/") ? file.substring(1) : file);
+									if (entry == null) {
+										throw new NoSuchFileException(file);
+									} else if (entry.isDirectory()) {
+										continue;
+									}
+
+									loader.getLogger().debug("Found nested JAR: " + path + "!/" + file);
+									Files.write(dest, fArchive.read(entry));
+								} else {
+									Path modPath = rootDir.resolve(file.replace("/", rootDir.getFileSystem().getSeparator()));
+									if (Files.isDirectory(modPath)) {
+										continue;
 									}
 
-									list.add(dest);
+									loader.getLogger().debug("Found nested JAR: " + modPath);
+									Files.copy(modPath, dest);
 								}
-							});
+							} catch (IOException e) {
+								throw new RuntimeException("Failed to load nested JAR " + file + " from " + path + " into memory (" + dest + ")!", e);
+							}
+
+							list.add(dest);
+						}
 
 						return list;
 					});
@@ -431,17 +460,75 @@ public class ModResolver {
 					}
 				}
 			}
+		}
+
+		private static InputStream openFile(Archive archive, Path path, String name) throws IOException {
+			if (archive == null) {
+				return Files.newInputStream(path);
+			}
+
+			InputStream stream = archive.getInputStream(name);
+			if (stream == null) {
+				throw new NoSuchFileException(name);
+			}
+
+			return stream;
+		}
+	}
+
+	/**
+	 * Release what discovery kept around: its archive handles and the in-memory copies of nested JARs which
+	 * were not loaded. The loaded mods' archives stay open through the handles of their own users.
+	 * Must only be called once no more mods will be discovered.
+	 *
+	 * @param loadedUrls The origin URLs of the loaded mods, which stay available.
+	 * @return The number of archive handles released and the number of nested JAR bytes deleted.
+	 */
+	public static long[] releaseUnusedCandidates(Collection<URL> loadedUrls) {
+		// compared as strings, as URL equality may resolve host names
+		Set<String> keep = loadedUrls.stream().map(URL::toString).collect(Collectors.toSet());
+		long released = releaseCandidateArchives(Collections.emptySet());
+		long deletedBytes = 0;
+
+		for (List<Path> paths : inMemoryCache.values()) {
+			for (Path path : paths) {
+				try {
+					if (!keep.contains(UrlUtil.asUrl(path.normalize()).toString())) {
+						long size = Files.size(path);
+						Files.delete(path);
+						deletedBytes += size;
+					}
+				} catch (IOException | UrlConversionException e) {
+					// pass
+				}
+			}
+		}
+
+		inMemoryCache.clear();
+		return new long[] { released, deletedBytes };
+	}
 
-			/* if (jarFs != null) {
-				jarFs.close();
-			} */
+	private static long releaseCandidateArchives(Set<String> keep) {
+		long released = 0;
+
+		for (Iterator<Map.Entry<String, Archive>> it = candidateArchives.entrySet().iterator(); it.hasNext(); ) {
+			Map.Entry<String, Archive> entry = it.next();
+
+			if (!keep.contains(entry.getKey())) {
+				entry.getValue().release();
+				it.remove();
+				released++;
+			}
 		}
+
+		return released;
 	}
 
 	public Map<String, ModCandidate> resolve(FabricLoader loader) throws ModResolutionException {
 		Map<String, ModCandidateSet> candidatesById = new ConcurrentHashMap<>();
 
 		long time1 = System.currentTimeMillis();
+		StartupTimeline.Phase discoverPhase = StartupTimeline.begin("discoverMods");
 
 		Queue<UrlProcessAction> allActions = new ConcurrentLinkedQueue<>();
 		ForkJoinPool pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
@@ -482,12 +569,26 @@ public class ModResolver {
 			throw new RuntimeException("Mod resolution failed!", exception);
 		}
 
+		discoverPhase.close();
+
 		long time2 = System.currentTimeMillis();
-		Map<String, ModCandidate> result = findCompatibleSet(loader.getLogger(), candidatesById);
+		Map<String, ModCandidate> result;
+
+		StartupTimeline.Phase resolveModsPhase = StartupTimeline.begin("resolveMods");
+		try {
+			result = findCompatibleSet(loader.getLogger(), candidatesById);
+		} finally {
+			resolveModsPhase.close();
+		}
 
 		long time3 = System.currentTimeMillis();
 		loader.getLogger().debug("Mod resolution detection time: " + (time2 - time1) + "ms");
 		loader.getLogger().debug("Mod resolution time: " + (time3 - time2) + "ms");
+		LoaderMetricsImpl.INSTANCE.setModDiscoveryTime(time2 - time1);
+		LoaderMetricsImpl.INSTANCE.setModResolutionTime(time3 - time2);
+
+		// the candidates which lost resolution are never read again
+		releaseCandidateArchives(result.values().stream().map((c) -> c.getOriginUrl().toString()).collect(Collectors.toSet()));
 
 		return result;
 	}
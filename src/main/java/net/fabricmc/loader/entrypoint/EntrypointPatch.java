@@ -16,6 +16,7 @@
 
 package net.fabricmc.loader.entrypoint;
 
+import net.fabricmc.loader.launch.common.ClassBytecodeCache;
 import net.fabricmc.loader.launch.common.FabricLauncher;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.AbstractInsnNode;
@@ -47,7 +48,7 @@ public abstract class EntrypointPatch {
 
 	protected boolean classExists(FabricLauncher launcher, String className) {
 		try {
-			return launcher.getClassByteArray(className) != null;
+			return ClassBytecodeCache.INSTANCE.getClassBytes(launcher, className) != null;
 		} catch (IOException e) {
 			return false;
 		}
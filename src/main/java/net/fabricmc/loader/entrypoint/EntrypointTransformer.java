@@ -20,6 +20,7 @@ import com.google.common.collect.ImmutableList;
 import net.fabricmc.loader.entrypoint.patches.EntrypointPatchBranding;
 import net.fabricmc.loader.entrypoint.patches.EntrypointPatchFML125;
 import net.fabricmc.loader.entrypoint.patches.EntrypointPatchHook;
+import net.fabricmc.loader.launch.common.ClassBytecodeCache;
 import net.fabricmc.loader.launch.common.FabricLauncher;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -38,7 +39,7 @@ public class EntrypointTransformer {
 
 	public final Logger logger = LogManager.getFormatterLogger("FabricLoader|EntrypointTransformer");
 	private final List<EntrypointPatch> patches;
-	private Map<String, byte[]> patchedClasses;
+	private volatile Map<String, byte[]> patchedClasses;
 	private boolean entrypointsLocated = false;
 
 	public EntrypointTransformer() {
@@ -50,7 +51,7 @@ public class EntrypointTransformer {
 	}
 
 	ClassNode loadClass(FabricLauncher launcher, String className) throws IOException {
-		byte[] data = patchedClasses.containsKey(className) ? patchedClasses.get(className) : launcher.getClassByteArray(className);
+		byte[] data = patchedClasses.containsKey(className) ? patchedClasses.get(className) : ClassBytecodeCache.INSTANCE.getClassBytes(launcher, className);
 		if (data != null) {
 			ClassReader reader = new ClassReader(data);
 			ClassNode node = new ClassNode();
@@ -84,12 +85,40 @@ public class EntrypointTransformer {
 		logger.debug("[EntrypointTransformer] Patched " + (patchedClasses.size() == 1 ? "1 class." : (patchedClasses.size() + " classes.")));
 	}
 
+	/**
+	 * Drop the patched bytes of classes which have already been loaded, and thus won't be transformed again.
+	 *
+	 * @return The number of bytes dropped.
+	 */
+	public long releaseLoadedClasses(FabricLauncher launcher) {
+		Map<String, byte[]> classes = patchedClasses;
+		if (classes == null) {
+			return 0;
+		}
+
+		// class loading threads read the map without locking, so replace it instead of removing entries
+		Map<String, byte[]> remaining = new HashMap<>();
+		long released = 0;
+
+		for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+			if (launcher.isClassLoaded(entry.getKey())) {
+				released += entry.getValue().length;
+			} else {
+				remaining.put(entry.getKey(), entry.getValue());
+			}
+		}
+
+		patchedClasses = remaining;
+		return released;
+	}
+
 	/**
 	 * This must run first, contractually!
 	 * @param className The class name,
-	 * @return The transformed class data.
+	 * @return The transformed class data, or null if the class was not patched or entrypoints have not been located.
 	 */
 	public byte[] transform(String className) {
-		return patchedClasses.get(className);
+		Map<String, byte[]> classes = patchedClasses;
+		return classes != null ? classes.get(className) : null;
 	}
 }
@@ -19,6 +19,9 @@ package net.fabricmc.loader.entrypoint.hooks;
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.loader.FabricLoader;
+import net.fabricmc.loader.LaunchReclaimer;
+import net.fabricmc.loader.util.ModProfiler;
+import net.fabricmc.loader.util.StartupTimeline;
 
 import java.io.File;
 
@@ -28,8 +31,23 @@ public final class EntrypointClient {
 			runDir = new File(".");
 		}
 
-		FabricLoader.INSTANCE.instantiateMods(runDir, gameInstance);
-		EntrypointUtils.logErrors("main", FabricLoader.INSTANCE.getEntrypoints("main", ModInitializer.class), ModInitializer::onInitialize);
-		EntrypointUtils.logErrors("client", FabricLoader.INSTANCE.getEntrypoints("client", ClientModInitializer.class), ClientModInitializer::onInitializeClient);
+		StartupTimeline.Phase instantiateModsPhase = StartupTimeline.begin("instantiateMods");
+		try {
+			FabricLoader.INSTANCE.instantiateMods(runDir, gameInstance);
+		} finally {
+			instantiateModsPhase.close();
+		}
+		EntrypointUtils.invokeOrdered("main", FabricLoader.INSTANCE.getEntrypointContainers("main", ModInitializer.class), ModInitializer::onInitialize);
+		EntrypointUtils.invokeOrdered("client", FabricLoader.INSTANCE.getEntrypointContainers("client", ClientModInitializer.class), ClientModInitializer::onInitializeClient);
+		ModProfiler.writeReport(runDir);
+
+		StartupTimeline.Phase launchCompletePhase = StartupTimeline.begin("launchComplete");
+		try {
+			LaunchReclaimer.reclaim();
+		} finally {
+			launchCompletePhase.close();
+		}
+
+		StartupTimeline.logSummary();
 	}
 }
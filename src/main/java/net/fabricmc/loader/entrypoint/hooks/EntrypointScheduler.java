@@ -0,0 +1,317 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.entrypoint.hooks;
+
+import com.google.gson.JsonElement;
+import net.fabricmc.loader.FabricLoader;
+import net.fabricmc.loader.api.EntrypointContainer;
+import net.fabricmc.loader.api.ModContainer;
+import net.fabricmc.loader.api.metadata.ModDependency;
+import net.fabricmc.loader.api.metadata.ModMetadata;
+import net.fabricmc.loader.launch.common.FabricLauncherBase;
+import net.fabricmc.loader.util.ModProfiler;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs the entrypoints of a stage in dependency order.
+ *
+ * Mods are topologically sorted by their "depends" entries, with ties broken by mod ID.
+ * Mods which set the custom value {@value #PARALLEL_KEY} to true are run on a worker
+ * pool as soon as all of their dependencies have finished; all other mods are run on
+ * the calling thread, in sorted order.
+ */
+final class EntrypointScheduler {
+	static final String PARALLEL_KEY = "okyanus:parallelInit";
+
+	/**
+	 * Tracks which mods have been through all of a set of synchronous stages, so that
+	 * asynchronous entrypoints can wait for them.
+	 */
+	static final class SyncProgress {
+		private final Map<String, AtomicInteger> remaining = new HashMap<>();
+		private final Map<String, CompletableFuture<Void>> done = new HashMap<>();
+
+		SyncProgress(Collection<? extends Collection<? extends EntrypointContainer<?>>> stages) {
+			for (Collection<? extends EntrypointContainer<?>> stage : stages) {
+				Set<String> ids = new HashSet<>();
+				for (EntrypointContainer<?> container : stage) {
+					ids.add(container.getProvider().getMetadata().getId());
+				}
+
+				for (String id : ids) {
+					remaining.computeIfAbsent(id, (k) -> new AtomicInteger()).incrementAndGet();
+					done.computeIfAbsent(id, (k) -> new CompletableFuture<>());
+				}
+			}
+		}
+
+		/**
+		 * @return A future which completes once the mod's entrypoints have run in all tracked stages.
+		 */
+		CompletableFuture<Void> get(String id) {
+			CompletableFuture<Void> future = done.get(id);
+			return future != null ? future : CompletableFuture.completedFuture(null);
+		}
+
+		void onModDone(String id) {
+			AtomicInteger count = remaining.get(id);
+			if (count != null && count.decrementAndGet() == 0) {
+				done.get(id).complete(null);
+			}
+		}
+	}
+
+	private EntrypointScheduler() {
+
+	}
+
+	static <T> void run(String name, Collection<EntrypointContainer<T>> entrypoints, Consumer<T> entrypointConsumer, List<Throwable> errors, SyncProgress progress) {
+		Map<String, List<T>> modEntrypoints = new HashMap<>();
+		Map<String, ModMetadata> modMetadata = new HashMap<>();
+
+		for (EntrypointContainer<T> container : entrypoints) {
+			ModMetadata metadata = container.getProvider().getMetadata();
+			modEntrypoints.computeIfAbsent(metadata.getId(), (id) -> new ArrayList<>()).add(container.getEntrypoint());
+			modMetadata.put(metadata.getId(), metadata);
+		}
+
+		List<String> order = sort(modMetadata);
+		ExecutorService executor = null;
+		Map<String, CompletableFuture<Void>> futures = new HashMap<>();
+
+		try {
+			for (String id : order) {
+				ModMetadata metadata = modMetadata.get(id);
+				List<T> modEntries = modEntrypoints.get(id);
+				Runnable task = () -> {
+					ModProfiler.Section section = ModProfiler.begin();
+
+					for (T entrypoint : modEntries) {
+						try {
+							entrypointConsumer.accept(entrypoint);
+						} catch (Throwable t) {
+							synchronized (errors) {
+								errors.add(t);
+							}
+						}
+					}
+
+					ModProfiler.end(section, id, ModProfiler.Category.ENTRYPOINT_INVOKE);
+
+					if (progress != null) {
+						progress.onModDone(id);
+					}
+				};
+
+				List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+				for (ModDependency dependency : metadata.getDepends()) {
+					CompletableFuture<Void> future = futures.get(dependency.getModId());
+					if (future != null) {
+						dependencies.add(future);
+					}
+				}
+
+				CompletableFuture<Void> dependenciesDone = CompletableFuture.allOf(dependencies.toArray(new CompletableFuture<?>[0]));
+
+				if (isParallel(metadata)) {
+					if (executor == null) {
+						executor = createExecutor(name);
+					}
+
+					FabricLoader.INSTANCE.getLogger().debug("Scheduling entrypoint '" + name + "' of mod " + id + " on the worker pool");
+					futures.put(id, dependenciesDone.thenRunAsync(task, executor));
+				} else {
+					dependenciesDone.join();
+					task.run();
+					futures.put(id, CompletableFuture.completedFuture(null));
+				}
+			}
+
+			CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).join();
+		} finally {
+			if (executor != null) {
+				executor.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * Start asynchronous entrypoints in dependency order: each mod's entrypoints are started
+	 * once the futures of all of its dependencies have completed, successfully or not, and
+	 * the mod and its dependencies have been through all synchronous stages tracked by progress.
+	 *
+	 * @return A future which completes once all entrypoints have completed; it never
+	 * completes exceptionally, failures are collected in errors instead.
+	 */
+	static <T> CompletableFuture<Void> runAsync(String name, Collection<EntrypointContainer<T>> entrypoints, Function<T, CompletableFuture<?>> entrypointFunction, List<Throwable> errors, SyncProgress progress) {
+		Map<String, List<T>> modEntrypoints = new HashMap<>();
+		Map<String, ModMetadata> modMetadata = new HashMap<>();
+
+		for (EntrypointContainer<T> container : entrypoints) {
+			ModMetadata metadata = container.getProvider().getMetadata();
+			modEntrypoints.computeIfAbsent(metadata.getId(), (id) -> new ArrayList<>()).add(container.getEntrypoint());
+			modMetadata.put(metadata.getId(), metadata);
+		}
+
+		Map<String, CompletableFuture<Void>> futures = new HashMap<>();
+
+		for (String id : sort(modMetadata)) {
+			List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+			dependencies.add(progress.get(id));
+
+			for (ModDependency dependency : modMetadata.get(id).getDepends()) {
+				CompletableFuture<Void> future = futures.get(dependency.getModId());
+				if (future != null) {
+					dependencies.add(future);
+				}
+
+				dependencies.add(progress.get(dependency.getModId()));
+			}
+
+			// time at which the mod's entrypoints were started, for the profiler and the completion log
+			long[] modStart = new long[1];
+
+			CompletableFuture<Void> future = CompletableFuture.allOf(dependencies.toArray(new CompletableFuture<?>[0])).thenCompose((v) -> {
+				List<CompletableFuture<?>> started = new ArrayList<>();
+				modStart[0] = System.nanoTime();
+
+				for (T entrypoint : modEntrypoints.get(id)) {
+					try {
+						CompletableFuture<?> result = entrypointFunction.apply(entrypoint);
+						if (result != null) {
+							started.add(result);
+						}
+					} catch (Throwable t) {
+						started.add(failedFuture(t));
+					}
+				}
+
+				return CompletableFuture.allOf(started.toArray(new CompletableFuture<?>[0]));
+			}).handle((v, t) -> {
+				if (t != null) {
+					synchronized (errors) {
+						errors.add(t instanceof CompletionException && t.getCause() != null ? t.getCause() : t);
+					}
+				}
+
+				if (modStart[0] != 0) {
+					long duration = System.nanoTime() - modStart[0];
+					ModProfiler.recordDuration(id, ModProfiler.Category.ASYNC_INIT, duration);
+					FabricLoader.INSTANCE.getLogger().debug(String.format("[Okyanus] Entrypoint '%s' of mod %s %s after %d ms", name, id, t == null ? "completed" : "failed", duration / 1000000));
+				} else {
+					FabricLoader.INSTANCE.getLogger().debug(String.format("[Okyanus] Entrypoint '%s' of mod %s failed before it started", name, id));
+				}
+				return null;
+			});
+
+			futures.put(id, future);
+		}
+
+		return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0]));
+	}
+
+	private static <T> CompletableFuture<T> failedFuture(Throwable t) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		future.completeExceptionally(t);
+		return future;
+	}
+
+	private static boolean isParallel(ModMetadata metadata) {
+		if (!metadata.containsCustomElement(PARALLEL_KEY)) {
+			return false;
+		}
+
+		JsonElement element = metadata.getCustomElement(PARALLEL_KEY);
+		return element.isJsonPrimitive() && element.getAsJsonPrimitive().isBoolean() && element.getAsBoolean();
+	}
+
+	/**
+	 * Sort mods topologically by their dependencies, picking the lowest mod ID among
+	 * all mods whose dependencies are satisfied at each step. Mods in a dependency
+	 * cycle are appended in mod ID order.
+	 */
+	static List<String> sort(Map<String, ModMetadata> mods) {
+		Map<String, Set<String>> dependents = new HashMap<>();
+		Map<String, Integer> remaining = new HashMap<>();
+
+		for (ModMetadata metadata : mods.values()) {
+			Set<String> dependencies = new HashSet<>();
+			for (ModDependency dependency : metadata.getDepends()) {
+				String depId = dependency.getModId();
+				if (mods.containsKey(depId) && !depId.equals(metadata.getId())) {
+					dependencies.add(depId);
+				}
+			}
+
+			for (String depId : dependencies) {
+				dependents.computeIfAbsent(depId, (id) -> new HashSet<>()).add(metadata.getId());
+			}
+
+			remaining.put(metadata.getId(), dependencies.size());
+		}
+
+		PriorityQueue<String> ready = new PriorityQueue<>();
+		for (Map.Entry<String, Integer> entry : remaining.entrySet()) {
+			if (entry.getValue() == 0) {
+				ready.add(entry.getKey());
+			}
+		}
+
+		List<String> order = new ArrayList<>(mods.size());
+
+		while (!ready.isEmpty()) {
+			String id = ready.poll();
+			order.add(id);
+			remaining.remove(id);
+
+			for (String dependent : dependents.getOrDefault(id, Collections.emptySet())) {
+				if (remaining.computeIfPresent(dependent, (k, v) -> v - 1) == 0) {
+					ready.add(dependent);
+				}
+			}
+		}
+
+		if (!remaining.isEmpty()) {
+			List<String> cyclic = new ArrayList<>(remaining.keySet());
+			Collections.sort(cyclic);
+			FabricLoader.INSTANCE.getLogger().warn("Mods with cyclic dependencies will be initialized in ID order: " + String.join(", ", cyclic));
+			order.addAll(cyclic);
+		}
+
+		return order;
+	}
+
+	private static ExecutorService createExecutor(String name) {
+		ClassLoader classLoader = FabricLauncherBase.getLauncher().getTargetClassLoader();
+		AtomicInteger threadId = new AtomicInteger();
+
+		return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), (r) -> {
+			Thread thread = new Thread(r, "Entrypoint '" + name + "' #" + threadId.incrementAndGet());
+			thread.setDaemon(true);
+			thread.setContextClassLoader(classLoader);
+			return thread;
+		});
+	}
+}
@@ -16,12 +16,21 @@
 
 package net.fabricmc.loader.entrypoint.hooks;
 
+import club.issizler.okyanus.api.AsyncMod;
 import club.issizler.okyanus.api.Mod;
 import net.fabricmc.api.DedicatedServerModInitializer;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.loader.FabricLoader;
+import net.fabricmc.loader.LaunchReclaimer;
+import net.fabricmc.loader.api.EntrypointContainer;
+import net.fabricmc.loader.util.ModProfiler;
+import net.fabricmc.loader.util.StartupTimeline;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public final class EntrypointServer {
 	public static void start(File runDir, Object gameInstance) {
@@ -29,9 +38,37 @@ public final class EntrypointServer {
 			runDir = new File(".");
 		}
 
-		FabricLoader.INSTANCE.instantiateMods(runDir, gameInstance);
-		EntrypointUtils.logErrors("main", FabricLoader.INSTANCE.getEntrypoints("main", ModInitializer.class), ModInitializer::onInitialize);
-		EntrypointUtils.logErrors("server", FabricLoader.INSTANCE.getEntrypoints("server", DedicatedServerModInitializer.class), DedicatedServerModInitializer::onInitializeServer);
-		EntrypointUtils.logErrors("okyanus", FabricLoader.INSTANCE.getEntrypoints("server", Mod.class), Mod::init);
+		StartupTimeline.Phase instantiateModsPhase = StartupTimeline.begin("instantiateMods");
+		try {
+			FabricLoader.INSTANCE.instantiateMods(runDir, gameInstance);
+		} finally {
+			instantiateModsPhase.close();
+		}
+
+		List<EntrypointContainer<ModInitializer>> main = FabricLoader.INSTANCE.getEntrypointContainers("main", ModInitializer.class);
+		List<EntrypointContainer<DedicatedServerModInitializer>> server = FabricLoader.INSTANCE.getEntrypointContainers("server", DedicatedServerModInitializer.class);
+		List<EntrypointContainer<Mod>> okyanus = FabricLoader.INSTANCE.getEntrypointContainers("server", Mod.class);
+
+		// Asynchronous initializers run alongside the synchronous stages, each one once its mod and
+		// dependencies have been synchronously initialized. They are awaited before the server
+		// finishes constructing and starts accepting connections.
+		EntrypointScheduler.SyncProgress progress = new EntrypointScheduler.SyncProgress(Arrays.asList(main, server, okyanus));
+		List<Throwable> asyncErrors = new ArrayList<>();
+		CompletableFuture<Void> asyncInit = EntrypointUtils.startAsync("okyanus-async", FabricLoader.INSTANCE.getEntrypointContainers("server", AsyncMod.class), AsyncMod::initAsync, asyncErrors, progress);
+
+		EntrypointUtils.invokeOrdered("main", main, ModInitializer::onInitialize, progress);
+		EntrypointUtils.invokeOrdered("server", server, DedicatedServerModInitializer::onInitializeServer, progress);
+		EntrypointUtils.invokeOrdered("okyanus", okyanus, Mod::init, progress);
+		EntrypointUtils.awaitAsync("okyanus-async", asyncInit, asyncErrors);
+		ModProfiler.writeReport(runDir);
+
+		StartupTimeline.Phase launchCompletePhase = StartupTimeline.begin("launchComplete");
+		try {
+			LaunchReclaimer.reclaim();
+		} finally {
+			launchCompletePhase.close();
+		}
+
+		StartupTimeline.logSummary();
 	}
 }
@@ -17,37 +17,83 @@
 package net.fabricmc.loader.entrypoint.hooks;
 
 import net.fabricmc.loader.FabricLoader;
+import net.fabricmc.loader.api.EntrypointContainer;
+import net.fabricmc.loader.util.StartupTimeline;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 final class EntrypointUtils {
 	private EntrypointUtils() {
 
 	}
 
-	static <T> void logErrors(String name, Collection<T> entrypoints, Consumer<T> entrypointConsumer) {
+	/**
+	 * Run entrypoints in dependency order, see {@link EntrypointScheduler}.
+	 */
+	static <T> void invokeOrdered(String name, Collection<EntrypointContainer<T>> entrypoints, Consumer<T> entrypointConsumer) {
+		invokeOrdered(name, entrypoints, entrypointConsumer, null);
+	}
+
+	/**
+	 * Run entrypoints in dependency order, reporting each mod to progress once its entrypoints have run.
+	 */
+	static <T> void invokeOrdered(String name, Collection<EntrypointContainer<T>> entrypoints, Consumer<T> entrypointConsumer, EntrypointScheduler.SyncProgress progress) {
 		List<Throwable> errors = new ArrayList<>();
 
-		FabricLoader.INSTANCE.getLogger().debug("Iterating over entrypoint '" + name + "'");
+		FabricLoader.INSTANCE.getLogger().debug("Iterating over entrypoint '" + name + "' in dependency order");
 
-		entrypoints.forEach((e) -> {
-			try {
-				entrypointConsumer.accept(e);
-			} catch (Throwable t) {
-				errors.add(t);
-			}
-		});
+		StartupTimeline.Phase phase = StartupTimeline.begin("entrypoint '" + name + "'");
+		try {
+			EntrypointScheduler.run(name, entrypoints, entrypointConsumer, errors, progress);
+		} finally {
+			phase.close();
+		}
+
+		throwErrors(name, errors);
+	}
+
+	/**
+	 * Start asynchronous entrypoints in dependency order, after the synchronous stages tracked by
+	 * progress, see {@link EntrypointScheduler#runAsync}.
+	 * Call {@link #awaitAsync(String, CompletableFuture, List)} with the returned future and
+	 * the given error list to wait for them.
+	 */
+	static <T> CompletableFuture<Void> startAsync(String name, Collection<EntrypointContainer<T>> entrypoints, Function<T, CompletableFuture<?>> entrypointFunction, List<Throwable> errors, EntrypointScheduler.SyncProgress progress) {
+		FabricLoader.INSTANCE.getLogger().debug("Starting asynchronous entrypoint '" + name + "'");
+
+		return EntrypointScheduler.runAsync(name, entrypoints, entrypointFunction, errors, progress);
+	}
 
+	static void awaitAsync(String name, CompletableFuture<Void> future, List<Throwable> errors) {
+		long start = System.currentTimeMillis();
+
+		StartupTimeline.Phase phase = StartupTimeline.begin("await entrypoint '" + name + "'");
+		try {
+			future.join();
+		} finally {
+			phase.close();
+		}
+
+		FabricLoader.INSTANCE.getLogger().debug("Waited " + (System.currentTimeMillis() - start) + " ms for asynchronous entrypoint '" + name + "'");
+
+		synchronized (errors) {
+			throwErrors(name, errors);
+		}
+	}
+
+	private static void throwErrors(String name, List<Throwable> errors) {
 		if (!errors.isEmpty()) {
 			RuntimeException exception = new RuntimeException("Could not execute entrypoint stage '" + name + "' due to errors!");
 
 			for (Throwable t : errors) {
 				exception.addSuppressed(t);
 			}
-			
+
 			throw exception;
 		}
 	}
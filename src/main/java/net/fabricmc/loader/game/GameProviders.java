@@ -18,6 +18,7 @@ package net.fabricmc.loader.game;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.ServiceLoader;
 
 public final class GameProviders {
 	private GameProviders() {
@@ -27,6 +28,12 @@ public final class GameProviders {
 	public static List<GameProvider> create() {
 		List<GameProvider> providers = new ArrayList<>();
 		providers.add(new MinecraftGameProvider());
+
+		// Additional providers, f.e. the synthetic game used by the startup benchmarks
+		for (GameProvider provider : ServiceLoader.load(GameProvider.class, GameProviders.class.getClassLoader())) {
+			providers.add(provider);
+		}
+
 		return providers;
 	}
 }
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.launch.common;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded LRU cache of untransformed class bytes, as returned by
+ * {@link FabricLauncher#getClassByteArray(String)}.
+ *
+ * Mixin and the entrypoint patches parse the same targets and supertypes
+ * many times before they are defined; both consumers mutate the class
+ * nodes they obtain, so only the bytes are shared and each caller parses
+ * its own node.
+ */
+public final class ClassBytecodeCache {
+	public static final ClassBytecodeCache INSTANCE = new ClassBytecodeCache(Long.parseLong(System.getProperty("fabric.classCache.maxBytes", String.valueOf(32L * 1024 * 1024))));
+
+	private final long maxBytes;
+	// access-ordered, so iteration starts at the least recently used entry
+	private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(256, 0.75f, true);
+	private long size;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	ClassBytecodeCache(long maxBytes) {
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * Get the bytes of a class, loading them from the launcher if they are not cached.
+	 * The returned array must not be modified.
+	 *
+	 * @param launcher The launcher to load the class bytes from.
+	 * @param name The class name, in dot-format.
+	 * @return The class bytes, or null if the class could not be found.
+	 */
+	public byte[] getClassBytes(FabricLauncher launcher, String name) throws IOException {
+		byte[] data;
+
+		synchronized (entries) {
+			data = entries.get(name);
+		}
+
+		if (data != null) {
+			hits.increment();
+			return data;
+		}
+
+		misses.increment();
+		data = launcher.getClassByteArray(name);
+
+		if (data != null && data.length <= maxBytes) {
+			synchronized (entries) {
+				byte[] old = entries.put(name, data);
+				size += data.length;
+				if (old != null) {
+					size -= old.length;
+				}
+
+				evict();
+			}
+		}
+
+		return data;
+	}
+
+	private void evict() {
+		Iterator<byte[]> it = entries.values().iterator();
+
+		while (size > maxBytes && it.hasNext()) {
+			size -= it.next().length;
+			it.remove();
+			evictions.increment();
+		}
+	}
+
+	/**
+	 * Drop a class from the cache, f.e. once it has been defined.
+	 *
+	 * @param name The class name, in dot-format.
+	 */
+	public void invalidate(String name) {
+		synchronized (entries) {
+			byte[] old = entries.remove(name);
+			if (old != null) {
+				size -= old.length;
+			}
+		}
+	}
+
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+			size = 0;
+		}
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	public long getSize() {
+		synchronized (entries) {
+			return size;
+		}
+	}
+
+	public String getStatistics() {
+		long hits = getHits();
+		long misses = getMisses();
+
+		return String.format("%d hits / %d misses (%.1f%%), %d evictions, %d KiB cached",
+			hits, misses, hits + misses == 0 ? 0 : 100.0 * hits / (hits + misses), getEvictions(), getSize() / 1024);
+	}
+}
@@ -45,4 +45,13 @@ public interface FabricLauncher {
 	String getTargetNamespace();
 
 	Collection<URL> getLoadTimeDependencies();
+
+	/**
+	 * Drop the class bytes which were transformed ahead of time but not loaded yet.
+	 *
+	 * @return The number of bytes released.
+	 */
+	default long releasePreTransformedClasses() {
+		return 0;
+	}
 }
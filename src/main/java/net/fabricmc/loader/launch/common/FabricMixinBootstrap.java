@@ -27,7 +27,12 @@ import org.apache.logging.log4j.Logger;
 import org.spongepowered.asm.launch.MixinBootstrap;
 import org.spongepowered.asm.mixin.MixinEnvironment;
 import org.spongepowered.asm.mixin.Mixins;
+import org.spongepowered.asm.mixin.transformer.Config;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -38,6 +43,8 @@ public final class FabricMixinBootstrap {
 
 	protected static Logger LOGGER = LogManager.getFormatterLogger("Fabric|MixinBootstrap");
 	private static boolean initialized = false;
+	private static Set<String> configs = Collections.emptySet();
+	private static Map<String, String> configMods = Collections.emptyMap();
 
 	static void addConfiguration(String configuration) {
 		Mixins.addConfiguration(configuration);
@@ -52,6 +59,22 @@ public final class FabricMixinBootstrap {
 			.collect(Collectors.toSet());
 	}
 
+	static Map<String, String> getMixinConfigMods(FabricLoader loader, EnvType type) {
+		Map<String, String> map = new HashMap<>();
+
+		for (ModContainer mod : loader.getAllMods()) {
+			if (mod.getMetadata() instanceof LoaderModMetadata) {
+				for (String config : ((LoaderModMetadata) mod.getMetadata()).getMixinConfigs(type)) {
+					if (config != null && !config.isEmpty()) {
+						map.putIfAbsent(config, mod.getMetadata().getId());
+					}
+				}
+			}
+		}
+
+		return map;
+	}
+
 	public static void init(EnvType side, FabricLoader loader) {
 		if (initialized) {
 			throw new RuntimeException("FabricMixinBootstrap has already been initialized!");
@@ -76,7 +99,50 @@ public final class FabricMixinBootstrap {
 		}
 
 		MixinBootstrap.init();
-		getMixinConfigs(loader, side).forEach(FabricMixinBootstrap::addConfiguration);
+		configs = getMixinConfigs(loader, side);
+		configMods = getMixinConfigMods(loader, side);
+		configs.forEach(FabricMixinBootstrap::addConfiguration);
 		initialized = true;
 	}
+
+	/**
+	 * Get the classes targeted by the mixin configurations registered in {@link #init(EnvType, FabricLoader)}.
+	 * The targets are only known once Mixin has selected its configurations, which happens
+	 * on the first class transformation.
+	 *
+	 * @return The target class names, in dot-format.
+	 */
+	public static Set<String> getMixinTargets() {
+		Set<String> targets = new HashSet<>();
+
+		for (Config config : Mixins.getConfigs()) {
+			if (configs.contains(config.getName())) {
+				targets.addAll(config.getConfig().getTargets());
+			}
+		}
+
+		return targets;
+	}
+
+	/**
+	 * Get the mods whose mixin configurations target each class. Like {@link #getMixinTargets()},
+	 * this is only complete once Mixin has selected its configurations.
+	 *
+	 * @return A map of target class names, in dot-format, to mod IDs.
+	 */
+	public static Map<String, Set<String>> getMixinTargetMods() {
+		Map<String, Set<String>> targetMods = new HashMap<>();
+
+		for (Config config : Mixins.getConfigs()) {
+			String modId = configMods.get(config.getName());
+
+			if (modId != null) {
+				for (String target : config.getConfig().getTargets()) {
+					targetMods.computeIfAbsent(target, (t) -> new HashSet<>()).add(modId);
+				}
+			}
+		}
+
+		return targetMods;
+	}
 }
@@ -27,11 +27,35 @@ import java.io.InputStream;
 public class MappingConfiguration {
 	protected static Logger LOGGER = LogManager.getFormatterLogger("FabricLoader");
 
-	private static Mappings mappings;
-	private static boolean checkedMappings;
+	// null until parsed, and again once released
+	private static volatile Mappings mappings;
 
+	/**
+	 * Parses the mappings on first use. Safe to call from multiple threads; callers
+	 * arriving while the mappings are being parsed wait for the result.
+	 */
 	public Mappings getMappings() {
-		if (!checkedMappings) {
+		Mappings mappings = MappingConfiguration.mappings;
+		return mappings != null ? mappings : loadMappings();
+	}
+
+	/**
+	 * Drop the parsed mappings; they are parsed again if requested later.
+	 *
+	 * @return The dropped mappings, or null if none were loaded.
+	 */
+	public Mappings release() {
+		synchronized (MappingConfiguration.class) {
+			Mappings released = mappings;
+			mappings = null;
+			return released;
+		}
+	}
+
+	private static synchronized Mappings loadMappings() {
+		Mappings mappings = MappingConfiguration.mappings;
+
+		if (mappings == null) {
 			InputStream mappingStream = FabricLauncherBase.class.getClassLoader().getResourceAsStream("mappings/mappings.tiny");
 
 			if (mappingStream != null) {
@@ -54,7 +78,7 @@ public class MappingConfiguration {
 				mappings = MappingsProvider.createEmptyMappings();
 			}
 
-			checkedMappings = true;
+			MappingConfiguration.mappings = mappings;
 		}
 
 		return mappings;
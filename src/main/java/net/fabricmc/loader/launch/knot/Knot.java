@@ -23,6 +23,7 @@ import net.fabricmc.loader.game.GameProvider;
 import net.fabricmc.loader.game.GameProviders;
 import net.fabricmc.loader.launch.common.FabricLauncherBase;
 import net.fabricmc.loader.launch.common.FabricMixinBootstrap;
+import net.fabricmc.loader.util.StartupTimeline;
 import net.fabricmc.loader.util.UrlConversionException;
 import net.fabricmc.loader.util.UrlUtil;
 import org.spongepowered.asm.launch.MixinBootstrap;
@@ -31,8 +32,14 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.net.URLClassLoader;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 public final class Knot extends FabricLauncherBase {
@@ -76,11 +83,16 @@ public final class Knot extends FabricLauncherBase {
 		List<GameProvider> providers = GameProviders.create();
 		provider = null;
 
-		for (GameProvider p : providers) {
-			if (p.locateGame(envType, this.getClass().getClassLoader())) {
-				provider = p;
-				break;
+		StartupTimeline.Phase locateGamePhase = StartupTimeline.begin("locateGame");
+		try {
+			for (GameProvider p : providers) {
+				if (p.locateGame(envType, this.getClass().getClassLoader())) {
+					provider = p;
+					break;
+				}
 			}
+		} finally {
+			locateGamePhase.close();
 		}
 
 		if (provider != null) {
@@ -102,33 +114,160 @@ public final class Knot extends FabricLauncherBase {
 		boolean useCompatibility = provider.requiresUrlClassLoader() || Boolean.parseBoolean(System.getProperty("fabric.loader.useCompatibilityClassLoader", "false"));
 		loader = useCompatibility ? new KnotCompatibilityClassLoader(isDevelopment(), envType) : new KnotClassLoader(isDevelopment(), envType);
 
-		for (Path path : provider.getGameContextJars()) {
-			FabricLauncherBase.deobfuscate(
-				provider.getGameId(),
-				provider.getLaunchDirectory(),
-				path,
-				this
-			);
-		}
+		// Startup stages, run concurrently once their inputs are ready:
+		//   parseMappings ---> deobfuscate -> locateEntrypoints --+-> freeze -> mixinBootstrap -> ...
+		//   loadMods (after deobfuscate in development) ----------+
+		// Deobfuscation waits for the mappings through MappingConfiguration. Mod discovery only reads mod files
+		// and metadata, except in development, where it also proposes URLs to and reads resources from the game
+		// class loader - there it runs after the game JARs have been proposed, to keep the class path order.
+		boolean concurrent = Boolean.parseBoolean(System.getProperty("fabric.loader.concurrentStartup", "true"));
+		ExecutorService stageExecutor = concurrent ? createStageExecutor() : null;
 
-		// Locate entrypoints before switching class loaders
-		EntrypointTransformer.INSTANCE.locateEntrypoints(this);
+		try {
+			Future<?> parseMappings = null;
+			if (stageExecutor != null) {
+				parseMappings = stageExecutor.submit(() -> {
+					StartupTimeline.Phase parseMappingsPhase = StartupTimeline.begin("parseMappings");
+					try {
+						getMappingConfiguration().getMappings();
+					} finally {
+						parseMappingsPhase.close();
+					}
+				});
+			}
 
-		Thread.currentThread().setContextClassLoader((ClassLoader) loader);
+			FabricLoader.INSTANCE.setGameDir(new File("."));
 
-		FabricLoader.INSTANCE.setGameDir(new File("."));
-		FabricLoader.INSTANCE.load();
-		FabricLoader.INSTANCE.freeze();
+			Future<?> loadMods = null;
+			if (stageExecutor != null && !isDevelopment) {
+				loadMods = stageExecutor.submit(this::loadMods);
+			}
 
-		MixinBootstrap.init();
-		FabricMixinBootstrap.init(getEnvironmentType(), FabricLoader.INSTANCE);
-		FabricLauncherBase.finishMixinBootstrapping();
+			StartupTimeline.Phase deobfuscatePhase = StartupTimeline.begin("deobfuscate");
+			try {
+				for (Path path : provider.getGameContextJars()) {
+					FabricLauncherBase.deobfuscate(
+						provider.getGameId(),
+						provider.getLaunchDirectory(),
+						path,
+						this
+					);
+				}
+			} finally {
+				deobfuscatePhase.close();
+			}
+
+			// Locate entrypoints before switching class loaders
+			StartupTimeline.Phase locateEntrypointsPhase = StartupTimeline.begin("locateEntrypoints");
+			try {
+				EntrypointTransformer.INSTANCE.locateEntrypoints(this);
+			} finally {
+				locateEntrypointsPhase.close();
+			}
+
+			Thread.currentThread().setContextClassLoader((ClassLoader) loader);
+
+			if (loadMods != null) {
+				awaitStage(loadMods);
+			} else {
+				loadMods();
+			}
 
-		loader.getDelegate().initializeTransformers();
+			if (parseMappings != null) {
+				awaitStage(parseMappings);
+			}
+		} finally {
+			if (stageExecutor != null) {
+				stageExecutor.shutdownNow();
+			}
+		}
+
+		StartupTimeline.Phase freezePhase = StartupTimeline.begin("freeze");
+		try {
+			FabricLoader.INSTANCE.freeze();
+		} finally {
+			freezePhase.close();
+		}
+
+		StartupTimeline.Phase mixinBootstrapPhase = StartupTimeline.begin("mixinBootstrap");
+		try {
+			MixinBootstrap.init();
+			FabricMixinBootstrap.init(getEnvironmentType(), FabricLoader.INSTANCE);
+			FabricLauncherBase.finishMixinBootstrapping();
+		} finally {
+			mixinBootstrapPhase.close();
+		}
+
+		StartupTimeline.Phase initializeTransformersPhase = StartupTimeline.begin("initializeTransformers");
+		try {
+			loader.getDelegate().initializeTransformers();
+		} finally {
+			initializeTransformersPhase.close();
+		}
+
+		if (Boolean.parseBoolean(System.getProperty("fabric.loader.preTransformMixinTargets", "false"))) {
+			StartupTimeline.Phase preTransformMixinTargetsPhase = StartupTimeline.begin("preTransformMixinTargets");
+			try {
+				preTransformMixinTargets();
+			} finally {
+				preTransformMixinTargetsPhase.close();
+			}
+		}
 
 		provider.launch((ClassLoader) loader);
 	}
 
+	private void loadMods() {
+		StartupTimeline.Phase loadModsPhase = StartupTimeline.begin("loadMods");
+		try {
+			FabricLoader.INSTANCE.load();
+		} finally {
+			loadModsPhase.close();
+		}
+	}
+
+	private ExecutorService createStageExecutor() {
+		AtomicInteger threadId = new AtomicInteger();
+
+		return Executors.newFixedThreadPool(2, (r) -> {
+			Thread thread = new Thread(r, "Knot Startup #" + threadId.incrementAndGet());
+			thread.setDaemon(true);
+			thread.setContextClassLoader((ClassLoader) loader);
+			return thread;
+		});
+	}
+
+	private static void awaitStage(Future<?> stage) {
+		try {
+			stage.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while waiting for a startup stage!", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			} else {
+				throw new RuntimeException(cause);
+			}
+		}
+	}
+
+	private void preTransformMixinTargets() {
+		long time = System.currentTimeMillis();
+		int threads = Integer.parseInt(System.getProperty("fabric.loader.preTransformThreads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+		// Mixin only learns about the targets of its configurations once it has selected them.
+		loader.getDelegate().selectMixinConfigs();
+		Set<String> targets = FabricMixinBootstrap.getMixinTargets();
+
+		int count = loader.getDelegate().preTransform(targets, Math.max(threads, 1));
+		LOGGER.info("Pre-transformed %d of %d mixin target classes in %d ms using %d threads", count, targets.size(), System.currentTimeMillis() - time, threads);
+	}
+
 	@Override
 	public String getTargetNamespace() {
 		// TODO: Won't work outside of Yarn
@@ -139,7 +278,7 @@ public final class Knot extends FabricLauncherBase {
 	public Collection<URL> getLoadTimeDependencies() {
 		String cmdLineClasspath = System.getProperty("java.class.path");
 
-		return Arrays.stream(cmdLineClasspath.split(File.pathSeparator)).filter((s) -> {
+		Set<URL> dependencies = Arrays.stream(cmdLineClasspath.split(File.pathSeparator)).filter((s) -> {
 			if (s.equals("*") || s.endsWith(File.separator + "*")) {
 				System.err.println("WARNING: Knot does not support wildcard classpath entries: " + s + " - the game may not load properly!");
 				return false;
@@ -159,6 +298,22 @@ public final class Knot extends FabricLauncherBase {
 				return null;
 			}
 		}).filter(Objects::nonNull).collect(Collectors.toSet());
+
+		// Libraries injected by a launcher class loader (see FabricServerLauncher) are not on java.class.path.
+		ClassLoader knotLoader = Knot.class.getClassLoader();
+		if (knotLoader instanceof URLClassLoader && knotLoader != ClassLoader.getSystemClassLoader()) {
+			for (URL url : ((URLClassLoader) knotLoader).getURLs()) {
+				try {
+					if (!UrlUtil.asFile(url).equals(gameJarFile)) {
+						dependencies.add(url);
+					}
+				} catch (UrlConversionException e) {
+					LOGGER.debug(e);
+				}
+			}
+		}
+
+		return dependencies;
 	}
 
 	@Override
@@ -196,6 +351,11 @@ public final class Knot extends FabricLauncherBase {
 		return loader.getDelegate().getClassByteArray(name, false);
 	}
 
+	@Override
+	public long releasePreTransformedClasses() {
+		return loader.getDelegate().releasePreTransformedClasses();
+	}
+
 	@Override
 	public boolean isDevelopment() {
 		return isDevelopment;
@@ -17,18 +17,26 @@
 package net.fabricmc.loader.launch.knot;
 
 import net.fabricmc.api.EnvType;
+import net.fabricmc.loader.FabricLoader;
 import net.fabricmc.loader.entrypoint.EntrypointTransformer;
 import net.fabricmc.loader.launch.common.FabricLauncherBase;
+import net.fabricmc.loader.launch.common.FabricMixinBootstrap;
 import net.fabricmc.loader.transformer.FabricTransformer;
 import net.fabricmc.loader.util.FileSystemUtil;
+import net.fabricmc.loader.util.LoaderMetricsImpl;
+import net.fabricmc.loader.util.ModProfiler;
+import net.fabricmc.loader.util.StartupTimeline;
 import net.fabricmc.loader.util.UrlConversionException;
 import net.fabricmc.loader.util.UrlUtil;
+import net.fabricmc.loader.util.archive.Archive;
+import org.spongepowered.asm.mixin.MixinEnvironment;
 import org.spongepowered.asm.mixin.transformer.MixinTransformer;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
 import java.net.JarURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
@@ -37,8 +45,17 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.CodeSource;
 import java.security.cert.Certificate;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.jar.Manifest;
 
 class KnotClassDelegate {
@@ -54,12 +71,17 @@ class KnotClassDelegate {
 		}
 	}
 
-	private final Map<String, Metadata> metadataCache = new HashMap<>();
+	private final Map<String, Metadata> metadataCache = new ConcurrentHashMap<>();
+	private final Map<String, byte[]> preTransformedClasses = new ConcurrentHashMap<>();
 	private final KnotClassLoaderInterface itf;
 	private final boolean isDevelopment;
 	private final EnvType envType;
 	private MixinTransformer mixinTransformer;
 	private boolean transformInitialized = false;
+	// set through initializeTransformersWithoutMixin only
+	private boolean mixinDisabled = false;
+	// only built when profiling, after Mixin has selected its configurations
+	private volatile Map<String, Set<String>> mixinTargetMods;
 
 	KnotClassDelegate(boolean isDevelopment, EnvType envType, KnotClassLoaderInterface itf) {
 		this.isDevelopment = isDevelopment;
@@ -83,8 +105,44 @@ class KnotClassDelegate {
 		transformInitialized = true;
 	}
 
+	/**
+	 * Have Mixin select its configurations now, instead of on the first class transformation,
+	 * so that their targets are known before any class is loaded through Knot.
+	 */
+	void selectMixinConfigs() {
+		MixinTransformer transformer = getMixinTransformer();
+
+		try {
+			Method checkSelect = MixinTransformer.class.getDeclaredMethod("checkSelect", MixinEnvironment.class);
+			checkSelect.setAccessible(true);
+
+			// transformClassBytes, which selects otherwise, is synchronized on the transformer as well
+			synchronized (transformer) {
+				checkSelect.invoke(transformer, MixinEnvironment.getCurrentEnvironment());
+			}
+		} catch (ReflectiveOperationException e) {
+			throw new RuntimeException("Failed to select mixin configurations!", e);
+		}
+	}
+
+	/**
+	 * Enable the Fabric transformers without a Mixin transformer, so that the class
+	 * loading path can be exercised without bootstrapping Mixin, f.e. in benchmarks.
+	 */
+	void initializeTransformersWithoutMixin() {
+		if (transformInitialized) {
+			throw new RuntimeException("Cannot initialize KnotClassDelegate twice!");
+		}
+
+		mixinDisabled = true;
+		transformInitialized = true;
+	}
+
 	private MixinTransformer getMixinTransformer() {
-		assert mixinTransformer != null;
+		if (mixinTransformer == null) {
+			throw new RuntimeException("Cannot transform classes before the Mixin transformer is initialized!");
+		}
+
 		return mixinTransformer;
 	}
 
@@ -153,10 +211,121 @@ class KnotClassDelegate {
 		return Metadata.EMPTY;
 	}
 
+	Metadata getMetadata(URL codeSourceURL, Archive archive) {
+		return metadataCache.computeIfAbsent(codeSourceURL.toString(), (codeSourceStr) -> {
+			Manifest manifest = null;
+
+			try {
+				manifest = archive.getManifest();
+			} catch (IOException e) {
+				if (FabricLauncherBase.getLauncher().isDevelopment()) {
+					System.err.println("Failed to load manifest: " + e);
+					e.printStackTrace();
+				}
+			}
+
+			// only used for unsigned archives, so there are no signers to carry over
+			return new Metadata(manifest, new CodeSource(codeSourceURL, (Certificate[]) null));
+		});
+	}
+
+	/**
+	 * Run the full transformation pipeline for the given classes on a worker pool
+	 * and keep the results until the classes are loaded.
+	 *
+	 * Reading and Fabric's own transformers run in parallel; Mixin serializes the
+	 * application of mixins itself.
+	 *
+	 * @return The number of classes which were transformed ahead of time.
+	 */
+	int preTransform(Collection<String> classNames, int threads) {
+		if (!transformInitialized) {
+			throw new RuntimeException("Cannot pre-transform classes before the transformers are initialized!");
+		}
+
+		AtomicInteger threadId = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(threads, (r) -> {
+			Thread thread = new Thread(r, "Fabric Pre-Transform #" + threadId.incrementAndGet());
+			thread.setDaemon(true);
+			thread.setContextClassLoader((ClassLoader) itf);
+			return thread;
+		});
+
+		AtomicInteger count = new AtomicInteger();
+		Map<String, Future<?>> futures = new HashMap<>();
+
+		try {
+			for (String name : classNames) {
+				futures.put(name, executor.submit(() -> {
+					if (itf.isClassLoaded(name) || preTransformedClasses.containsKey(name)) {
+						return;
+					}
+
+					byte[] data = loadClassData(name, false);
+					if (data != null && preTransformedClasses.putIfAbsent(name, data) == null) {
+						if (itf.isClassLoaded(name)) {
+							// defined in the meantime without taking these bytes, which would never be removed otherwise
+							preTransformedClasses.remove(name, data);
+						} else {
+							count.incrementAndGet();
+						}
+					}
+				}));
+			}
+
+			for (Map.Entry<String, Future<?>> entry : futures.entrySet()) {
+				try {
+					entry.getValue().get();
+				} catch (ExecutionException e) {
+					// the class will be transformed again, and fail properly, once it is loaded
+					FabricLoader.INSTANCE.getLogger().warn("Failed to pre-transform class '" + entry.getKey() + "'", e.getCause());
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			executor.shutdownNow();
+		}
+
+		return count.get();
+	}
+
+	/**
+	 * Drop the pre-transformed bytes of classes which were not loaded; they are transformed again if they ever are.
+	 *
+	 * @return The number of bytes released.
+	 */
+	long releasePreTransformedClasses() {
+		long released = 0;
+
+		for (Iterator<byte[]> it = preTransformedClasses.values().iterator(); it.hasNext(); ) {
+			released += it.next().length;
+			it.remove();
+		}
+
+		return released;
+	}
+
 	public byte[] loadClassData(String name, boolean resolve) {
+		StartupTimeline.ClassLoad classLoad = StartupTimeline.getCurrentClassLoad();
+
+		byte[] preTransformed = preTransformedClasses.remove(name);
+		if (preTransformed != null) {
+			if (classLoad != null) {
+				classLoad.mark(StartupTimeline.ClassStage.READ);
+			}
+
+			return preTransformed;
+		}
+
 		if (!transformInitialized) {
 			try {
-				return getClassByteArray(name, true);
+				byte[] b = getClassByteArray(name, true);
+				if (classLoad != null) {
+					classLoad.mark(StartupTimeline.ClassStage.READ);
+				}
+
+				return b;
 			} catch (IOException e) {
 				throw new RuntimeException("Failed to load class file for '" + name + "'!", e);
 			}
@@ -165,23 +334,72 @@ class KnotClassDelegate {
 		// Blocking Fabric Loader classes is no longer necessary here as they don't exist on the modding class loader
 		if (/* !"net.fabricmc.api.EnvType".equals(name) && !name.startsWith("net.fabricmc.loader.") && */ !name.startsWith("org.apache.logging.log4j")) {
 			byte[] input = EntrypointTransformer.INSTANCE.transform(name);
+			if (classLoad != null) {
+				classLoad.mark(StartupTimeline.ClassStage.ENTRYPOINT_PATCH);
+			}
+
 			if (input == null) {
 				try {
 					input = getClassByteArray(name, true);
 				} catch (IOException e) {
 					throw new RuntimeException("Failed to load class file for '" + name + "'!", e);
 				}
+
+				if (classLoad != null) {
+					classLoad.mark(StartupTimeline.ClassStage.READ);
+				}
 			}
 
 			if (input != null) {
 				byte[] b = FabricTransformer.transform(isDevelopment, envType, name, input);
-				b = getMixinTransformer().transformClassBytes(name, name, b);
+				if (classLoad != null) {
+					classLoad.mark(StartupTimeline.ClassStage.FABRIC_TRANSFORM);
+				}
+
+				b = transformMixins(name, b);
+				if (classLoad != null) {
+					classLoad.mark(StartupTimeline.ClassStage.MIXIN);
+				}
+
+				if (b != null) {
+					LoaderMetricsImpl.INSTANCE.onBytesTransformed(b.length);
+				}
+
 				return b;
 			}
 		}
 
 		// We haven't found a class by now, but it could be injected by Mixin
-		return getMixinTransformer().transformClassBytes(name, name, null);
+		byte[] b = transformMixins(name, null);
+		if (classLoad != null) {
+			classLoad.mark(StartupTimeline.ClassStage.MIXIN);
+		}
+
+		return b;
+	}
+
+	private byte[] transformMixins(String name, byte[] input) {
+		if (mixinDisabled) {
+			return input;
+		}
+
+		ModProfiler.Section section = ModProfiler.begin();
+		byte[] b = getMixinTransformer().transformClassBytes(name, name, input);
+		LoaderMetricsImpl.INSTANCE.onMixinTransform(b != input);
+
+		if (section != null) {
+			Map<String, Set<String>> targetMods = mixinTargetMods;
+			if (targetMods == null) {
+				mixinTargetMods = targetMods = FabricMixinBootstrap.getMixinTargetMods();
+			}
+
+			Set<String> mods = targetMods.get(name);
+			if (mods != null) {
+				ModProfiler.end(section, mods, ModProfiler.Category.MIXIN_TRANSFORM);
+			}
+		}
+
+		return b;
 	}
 
 	String getClassFileName(String name) {
@@ -204,6 +422,7 @@ class KnotClassDelegate {
 		}
 
 		inputStream.close();
+		LoaderMetricsImpl.INSTANCE.onBytesRead(outputStream.size());
 		return outputStream.toByteArray();
 	}
 }
@@ -17,14 +17,27 @@
 package net.fabricmc.loader.launch.knot;
 
 import net.fabricmc.api.EnvType;
-
+import net.fabricmc.loader.launch.common.ClassBytecodeCache;
+import net.fabricmc.loader.util.LoaderMetricsImpl;
+import net.fabricmc.loader.util.ModProfiler;
+import net.fabricmc.loader.util.StartupTimeline;
+import net.fabricmc.loader.util.UrlConversionException;
+import net.fabricmc.loader.util.UrlUtil;
+import net.fabricmc.loader.util.archive.Archive;
+import net.fabricmc.loader.util.archive.ArchiveRegistry;
+
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.SecureClassLoader;
 import java.util.Enumeration;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 class KnotClassLoader extends SecureClassLoader implements KnotClassLoaderInterface {
 	private static class DynamicURLClassLoader extends URLClassLoader {
@@ -42,7 +55,21 @@ class KnotClassLoader extends SecureClassLoader implements KnotClassLoaderInterf
 		}
 	}
 
+	static final class ArchiveSource {
+		final URL url;
+		final Archive archive;
+
+		private ArchiveSource(URL url, Archive archive) {
+			this.url = url;
+			this.archive = archive;
+		}
+	}
+
 	private final DynamicURLClassLoader urlLoader;
+	// class file name -> the first added archive containing it, in URL order
+	private final Map<String, ArchiveSource> classIndex = new ConcurrentHashMap<>();
+	// whether every added URL is indexed, making index misses authoritative for class files
+	private volatile boolean fullyIndexed = true;
 	private final ClassLoader originalLoader;
 	private final KnotClassDelegate delegate;
 
@@ -139,20 +166,43 @@ class KnotClassLoader extends SecureClassLoader implements KnotClassLoaderInterf
 			Class<?> c = findLoadedClass(name);
 
 			if (c == null) {
-				byte[] input = delegate.loadClassData(name, resolve);
-				if (input != null) {
-					KnotClassDelegate.Metadata metadata = delegate.getMetadata(name, urlLoader.getResource(delegate.getClassFileName(name)));
-
-					int pkgDelimiterPos = name.lastIndexOf('.');
-					if (pkgDelimiterPos > 0) {
-						// TODO: package definition stub
-						String pkgString = name.substring(0, pkgDelimiterPos);
-						if (getPackage(pkgString) == null) {
-							definePackage(pkgString, null, null, null, null, null, null, null);
+				StartupTimeline.ClassLoad classLoad = StartupTimeline.beginClassLoad(name);
+
+				try {
+					ModProfiler.Section section = ModProfiler.begin();
+					byte[] input = delegate.loadClassData(name, resolve);
+					if (input != null) {
+						ArchiveSource source = classIndex.get(delegate.getClassFileName(name));
+						// signed archives keep the JarURLConnection path, as the archive doesn't verify signatures
+						KnotClassDelegate.Metadata metadata = source != null && !source.archive.isSigned()
+							? delegate.getMetadata(source.url, source.archive)
+							: delegate.getMetadata(name, urlLoader.getResource(delegate.getClassFileName(name)));
+
+						int pkgDelimiterPos = name.lastIndexOf('.');
+						if (pkgDelimiterPos > 0) {
+							// TODO: package definition stub
+							String pkgString = name.substring(0, pkgDelimiterPos);
+							if (getPackage(pkgString) == null) {
+								definePackage(pkgString, null, null, null, null, null, null, null);
+							}
+						}
+
+						c = defineClass(name, input, 0, input.length, metadata.codeSource);
+						classLoad.mark(StartupTimeline.ClassStage.DEFINE);
+						ClassBytecodeCache.INSTANCE.invalidate(name);
+
+						if (section != null) {
+							ModProfiler.end(section, ModProfiler.getModId(metadata.codeSource != null ? metadata.codeSource.getLocation() : null), ModProfiler.Category.CLASS_LOAD);
 						}
 					}
+				} finally {
+					long nanos = classLoad.end(c != null);
 
-					c = defineClass(name, input, 0, input.length, metadata.codeSource);
+					if (c != null) {
+						LoaderMetricsImpl.INSTANCE.onClassDefined(nanos);
+					} else {
+						LoaderMetricsImpl.INSTANCE.onNegativeLookup();
+					}
 				}
 			}
 
@@ -170,16 +220,59 @@ class KnotClassLoader extends SecureClassLoader implements KnotClassLoaderInterf
 
 	@Override
 	public void addURL(URL url) {
+		if (fullyIndexed) {
+			index(url);
+		}
+
 		urlLoader.addURL(url);
 	}
 
+	private void index(URL url) {
+		Archive archive = null;
+
+		try {
+			Path path = UrlUtil.asPath(url);
+
+			if (Files.isRegularFile(path)) {
+				archive = ArchiveRegistry.acquire(path);
+			}
+		} catch (UrlConversionException | IOException | RuntimeException e) {
+			// not an archive we can read, so served by the URL loader only
+		}
+
+		if (archive == null) {
+			// later archives may be shadowed by this URL, stop indexing
+			fullyIndexed = false;
+			return;
+		}
+
+		ArchiveSource source = new ArchiveSource(url, archive);
+
+		for (Archive.Entry entry : archive.getEntries()) {
+			if (!entry.isDirectory() && entry.getName().endsWith(".class")) {
+				classIndex.putIfAbsent(entry.getName(), source);
+			}
+		}
+	}
+
 	static {
 		registerAsParallelCapable();
 	}
 
 	@Override
 	public InputStream getResourceAsStream(String classFile, boolean skipOriginalLoader) throws IOException {
-		InputStream inputStream = urlLoader.getResourceAsStream(classFile);
+		InputStream inputStream;
+		ArchiveSource source = classIndex.get(classFile);
+
+		if (source != null) {
+			byte[] data = source.archive.read(classFile);
+			inputStream = data != null ? new ByteArrayInputStream(data) : null;
+		} else if (fullyIndexed && classFile.endsWith(".class")) {
+			inputStream = null;
+		} else {
+			inputStream = urlLoader.getResourceAsStream(classFile);
+		}
+
 		if (inputStream == null && !skipOriginalLoader) {
 			inputStream = originalLoader.getResourceAsStream(classFile);
 		}
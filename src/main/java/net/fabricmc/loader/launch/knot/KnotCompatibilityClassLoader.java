@@ -17,6 +17,10 @@
 package net.fabricmc.loader.launch.knot;
 
 import net.fabricmc.api.EnvType;
+import net.fabricmc.loader.launch.common.ClassBytecodeCache;
+import net.fabricmc.loader.util.LoaderMetricsImpl;
+import net.fabricmc.loader.util.ModProfiler;
+import net.fabricmc.loader.util.StartupTimeline;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -49,20 +53,39 @@ class KnotCompatibilityClassLoader extends URLClassLoader implements KnotClassLo
 			Class<?> c = findLoadedClass(name);
 
 			if (c == null) {
-				byte[] input = delegate.loadClassData(name, resolve);
-				if (input != null) {
-					KnotClassDelegate.Metadata metadata = delegate.getMetadata(name, getResource(delegate.getClassFileName(name)));
-
-					int pkgDelimiterPos = name.lastIndexOf('.');
-					if (pkgDelimiterPos > 0) {
-						// TODO: package definition stub
-						String pkgString = name.substring(0, pkgDelimiterPos);
-						if (getPackage(pkgString) == null) {
-							definePackage(pkgString, null, null, null, null, null, null, null);
+				StartupTimeline.ClassLoad classLoad = StartupTimeline.beginClassLoad(name);
+
+				try {
+					ModProfiler.Section section = ModProfiler.begin();
+					byte[] input = delegate.loadClassData(name, resolve);
+					if (input != null) {
+						KnotClassDelegate.Metadata metadata = delegate.getMetadata(name, getResource(delegate.getClassFileName(name)));
+
+						int pkgDelimiterPos = name.lastIndexOf('.');
+						if (pkgDelimiterPos > 0) {
+							// TODO: package definition stub
+							String pkgString = name.substring(0, pkgDelimiterPos);
+							if (getPackage(pkgString) == null) {
+								definePackage(pkgString, null, null, null, null, null, null, null);
+							}
+						}
+
+						c = defineClass(name, input, 0, input.length, metadata.codeSource);
+						classLoad.mark(StartupTimeline.ClassStage.DEFINE);
+						ClassBytecodeCache.INSTANCE.invalidate(name);
+
+						if (section != null) {
+							ModProfiler.end(section, ModProfiler.getModId(metadata.codeSource != null ? metadata.codeSource.getLocation() : null), ModProfiler.Category.CLASS_LOAD);
 						}
 					}
+				} finally {
+					long nanos = classLoad.end(c != null);
 
-					c = defineClass(name, input, 0, input.length, metadata.codeSource);
+					if (c != null) {
+						LoaderMetricsImpl.INSTANCE.onClassDefined(nanos);
+					} else {
+						LoaderMetricsImpl.INSTANCE.onNegativeLookup();
+					}
 				}
 			}
 
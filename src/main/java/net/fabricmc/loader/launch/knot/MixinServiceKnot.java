@@ -17,6 +17,7 @@
 package net.fabricmc.loader.launch.knot;
 
 import com.google.common.collect.ImmutableList;
+import net.fabricmc.loader.launch.common.ClassBytecodeCache;
 import net.fabricmc.loader.launch.common.FabricLauncherBase;
 import org.spongepowered.asm.lib.ClassReader;
 import org.spongepowered.asm.lib.tree.ClassNode;
@@ -42,12 +43,12 @@ public class MixinServiceKnot implements IMixinService, IClassProvider, IClassBy
 
 	@Override
 	public byte[] getClassBytes(String name, String transformedName) throws IOException {
-		return FabricLauncherBase.getLauncher().getClassByteArray(name);
+		return ClassBytecodeCache.INSTANCE.getClassBytes(FabricLauncherBase.getLauncher(), name);
 	}
 
 	@Override
 	public byte[] getClassBytes(String name, boolean runTransformers) throws ClassNotFoundException, IOException {
-		byte[] classBytes = FabricLauncherBase.getLauncher().getClassByteArray(name);
+		byte[] classBytes = ClassBytecodeCache.INSTANCE.getClassBytes(FabricLauncherBase.getLauncher(), name);
 		if (classBytes != null) {
 			return classBytes;
 		} else {
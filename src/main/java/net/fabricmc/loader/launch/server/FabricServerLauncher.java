@@ -22,15 +22,15 @@ import com.google.gson.Gson;
 import net.fabricmc.loader.util.UrlUtil;
 
 import java.io.*;
-import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.net.URLClassLoader;
-import java.nio.channels.Channels;
-import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystem;
 import java.nio.file.*;
-import java.util.Objects;
+import java.nio.file.spi.FileSystemProvider;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
 import java.util.stream.Stream;
 
@@ -38,6 +38,10 @@ public class FabricServerLauncher {
 	private static final ClassLoader parentLoader = FabricServerLauncher.class.getClassLoader();
 	private static String mainClass = "net.fabricmc.loader.launch.knot.KnotServer";
 	private static File libFolder = new File(".okyanus" + File.separator + "libraries");
+	// TODO: update this every time a new version gets released
+	// Current version: 1.14.3
+	private static final String DEFAULT_SERVER_URL = "https://launcher.mojang.com/v1/objects/d0d0fe2b1dc6ab4c65554cb734270872b72dadd6/server.jar";
+	private static final String DEFAULT_SERVER_SHA1 = "d0d0fe2b1dc6ab4c65554cb734270872b72dadd6";
 
 	public static void main(String[] args) {
 		URL propUrl = parentLoader.getResource("fabric-server-launch.properties");
@@ -58,8 +62,13 @@ public class FabricServerLauncher {
 
 		if (!dev) {
 			try {
-				checkLibraries();
-				setup(args);
+				Properties loaderProperties = loadLoaderProperties();
+				// Injecting the libraries keeps them out of the launcher JAR, which lets the server start
+				// on the first run and works with read-only launcher JARs (container images and the like).
+				boolean injectLibraries = Boolean.parseBoolean(System.getProperty("fabric.server.injectLibraries", loaderProperties.getProperty("injectLibraries", "false")));
+
+				List<File> libraries = checkLibraries(loaderProperties, !injectLibraries);
+				setup(loaderProperties, libraries, args);
 			} catch (Exception e) {
 				throw new RuntimeException("Failed to setup Fabric server environment!", e);
 			}
@@ -77,7 +86,7 @@ public class FabricServerLauncher {
 		}
 	}
 
-	private static void setup(String... runArguments) throws IOException {
+	private static Properties loadLoaderProperties() throws IOException {
 		// Pre-load "fabric-server-launcher.properties"
 		File propertiesFile = new File("okyanus-loader.properties");
 		Properties properties = new Properties();
@@ -88,6 +97,16 @@ public class FabricServerLauncher {
 			}
 		}
 
+		return properties;
+	}
+
+	private static boolean allowUnverified(Properties properties) {
+		return Boolean.parseBoolean(System.getProperty("fabric.server.allowUnverifiedLibraries", properties.getProperty("allowUnverifiedLibraries", "false")));
+	}
+
+	private static void setup(Properties properties, List<File> libraries, String... runArguments) throws IOException {
+		File propertiesFile = new File("okyanus-loader.properties");
+
 		// Most popular Minecraft server hosting platforms do not allow
 		// passing arbitrary arguments to the server .JAR. Meanwhile,
 		// Mojang's default server filename is "server.jar" as of
@@ -100,9 +119,8 @@ public class FabricServerLauncher {
 		}
 
 		if (!properties.containsKey("serverUrl")) {
-			// TODO: update this every time a new version gets released
-			// Current version: 1.14.3
-			properties.put("serverUrl", "https://launcher.mojang.com/v1/objects/d0d0fe2b1dc6ab4c65554cb734270872b72dadd6/server.jar");
+			properties.put("serverUrl", DEFAULT_SERVER_URL);
+			properties.put("serverSha1", DEFAULT_SERVER_SHA1);
 
 			try (FileOutputStream stream = new FileOutputStream(propertiesFile)) {
 				properties.store(stream, null);
@@ -113,103 +131,123 @@ public class FabricServerLauncher {
 		URL serverUrl = new URL((String) properties.get("serverUrl"));
 
 		if (!serverJar.exists()) {
-			downloadFile(serverJar, serverUrl);
+			// properties written before the hash was recorded only have the default URL
+			String serverSha1 = properties.getProperty("serverSha1", serverUrl.toString().equals(DEFAULT_SERVER_URL) ? DEFAULT_SERVER_SHA1 : null);
+
+			if (serverSha1 == null && !allowUnverified(properties)) {
+				throw new IOException("No serverSha1 given for " + serverUrl + "! Set it, or fabric.server.allowUnverifiedLibraries to accept the server JAR unverified.");
+			}
+
+			LibraryProvisioner.download(serverUrl, serverJar.toPath(), "SHA-1", serverSha1);
 		}
 
 		System.setProperty("fabric.gameJarPath", serverJar.getAbsolutePath());
 		try {
-			URLClassLoader newClassLoader = new InjectingURLClassLoader(new URL[]{FabricServerLauncher.class.getProtectionDomain().getCodeSource().getLocation(), UrlUtil.asUrl(serverJar)}, parentLoader, "com.google.common.jimfs.");
+			List<URL> urls = new ArrayList<>();
+			urls.add(FabricServerLauncher.class.getProtectionDomain().getCodeSource().getLocation());
+			for (File library : libraries) {
+				urls.add(UrlUtil.asUrl(library));
+			}
+			urls.add(UrlUtil.asUrl(serverJar));
+
+			InjectingURLClassLoader newClassLoader;
+			if (libraries.isEmpty()) {
+				// jimfs has to come from the system class loader, as that is where Java looks up its URL handler.
+				newClassLoader = new InjectingURLClassLoader(urls.toArray(new URL[0]), parentLoader, "com.google.common.jimfs.");
+			} else {
+				newClassLoader = new InjectingURLClassLoader(urls.toArray(new URL[0]), parentLoader);
+				registerJimfsHandler(newClassLoader);
+			}
+
 			Thread.currentThread().setContextClassLoader(newClassLoader);
 			launch(mainClass, newClassLoader, runArguments);
+			System.out.println(String.format("Launch complete, the library class loader defined %d classes in %d ms",
+				newClassLoader.getLoadedClassCount(), newClassLoader.getLoadTimeNanos() / 1000000));
 		} catch (Exception ex) {
 			throw new RuntimeException(ex);
 		}
 	}
 
 
-	private static String sanitizedLibName(String name) {
-		return name.replace(':', '.');
-	}
-
-	private static void downloadLibrary(Library library) {
-		downloadFile(new File(libFolder, sanitizedLibName(library.name)), mkUrlFromName(library.name, library.url));
-	}
-
-	private static URL mkUrlFromName(String name, String root) {
-		String[] spname = name.split(":");
-
-		String path = spname[0].replace('.', '/') + "/" + spname[1] + "/" + spname[2];
-		String fname = spname[1] + "-" + spname[2] + ".jar";
+	private static void registerJimfsHandler(ClassLoader loader) {
+		// The injected jimfs is invisible to the system class loader, which is the only place Java looks for
+		// URL handlers and installed file system providers, so hand its nested JAR URLs over explicitly.
+		FileSystemProvider provider = UrlUtil.findProvider("jimfs", loader);
+		if (provider == null) {
+			throw new RuntimeException("Could not find the jimfs file system provider in the server libraries!");
+		}
 
 		try {
-			return new URL(root + path + "/" + fname);
-		} catch (MalformedURLException e) {
-			System.err.println("Malformed library URL!");
-			e.printStackTrace();
-			System.exit(1);
+			URL.setURLStreamHandlerFactory((protocol) -> "jimfs".equals(protocol) ? new ProviderURLStreamHandler(provider) : null);
+		} catch (Error e) {
+			// another URL stream handler factory is already installed, nested JARs could not be loaded
+			throw new RuntimeException("Could not register the jimfs URL handler!", e);
 		}
-
-		return null;
 	}
 
-	private static void checkLibraries() {
+	/**
+	 * Makes sure all server libraries are available.
+	 *
+	 * @param patch Whether to copy the libraries into the launcher JAR, which requires a restart.
+	 * @return The library JARs to put on the launch classpath; empty if the launcher JAR already contains them.
+	 */
+	private static List<File> checkLibraries(Properties properties, boolean patch) throws IOException {
+		List<File> libraries = new ArrayList<>();
 		if (FabricServerLauncher.class.getResource("/mappings/mappings.tiny") != null)
-			return; // We're already patched!
-
-		InputStream in = FabricServerLauncher.class.getResourceAsStream("/fabric-installer.json");
-		BufferedReader reader = new BufferedReader(new InputStreamReader(in));
-		InstallerFile file = new Gson().fromJson(reader, InstallerFile.class);
-//
-		if (!libFolder.exists()) {
-			libFolder.mkdirs();
-		}
+			return libraries; // We're already patched!
 
-		for (Library library : file.libraries.common) {
-			File libFile = new File(libFolder, sanitizedLibName(library.name));
-			if (!libFile.exists()) {
-				downloadLibrary(library);
-			}
+		InstallerFile file;
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(FabricServerLauncher.class.getResourceAsStream("/fabric-installer.json"), StandardCharsets.UTF_8))) {
+			file = new Gson().fromJson(reader, InstallerFile.class);
 		}
 
-		for (Library library : file.libraries.server) {
-			File libFile = new File(libFolder, sanitizedLibName(library.name));
-			if (!libFile.exists()) {
-				downloadLibrary(library);
-			}
+		List<Library> toProvision = new ArrayList<>();
+		Collections.addAll(toProvision, file.libraries.common);
+		Collections.addAll(toProvision, file.libraries.server);
+
+		Library intermediary = new Library();
+		intermediary.name = "net.fabricmc:intermediary:1.14.3";
+		intermediary.url = "https://maven.fabricmc.net/";
+		toProvision.add(intermediary);
+
+		// A repository override (e.g. a file: URL pointing at a pre-seeded copy of another node's library folder)
+		// replaces the repositories given by fabric-installer.json.
+		LibraryProvisioner provisioner = new LibraryProvisioner(
+			libFolder.toPath(),
+			System.getProperty("fabric.server.libraryRepository", properties.getProperty("libraryRepository")),
+			Boolean.parseBoolean(System.getProperty("fabric.server.verifyLibraries", "false")),
+			allowUnverified(properties),
+			Integer.parseInt(System.getProperty("fabric.server.libraryThreads", "8"))
+		);
+
+		for (Path path : provisioner.provision(toProvision)) {
+			libraries.add(path.toFile());
 		}
 
-		File intermediary = new File(libFolder, "intermediary");
-		if (!intermediary.exists()) {
-			try {
-				downloadFile(intermediary, new URL("https://maven.fabricmc.net/net/fabricmc/intermediary/1.14.3/intermediary-1.14.3.jar"));
-			} catch (MalformedURLException e) {
-				throw new RuntimeException(e);
-			}
+		if (!patch) {
+			return libraries;
 		}
 
 		System.out.println("Patching current jar...");
 		try (FileSystem thisFs = FileSystems.newFileSystem(Paths.get(FabricServerLauncher.class.getProtectionDomain().getCodeSource().getLocation().toURI()), null)) {
 
-			for (File lib : Objects.requireNonNull(libFolder.listFiles())) {
+			for (File lib : libraries) {
 				System.out.println("Applying library " + lib);
 
 				try (FileSystem libFs = FileSystems.newFileSystem(Paths.get(lib.toURI()), null)){
 					for (Path directory : libFs.getRootDirectories()) {
 						copyDir(directory, thisFs.getPath("/"));
 					}
-				} catch (IOException e) {
-					throw new RuntimeException(e);
 				}
-
-				lib.deleteOnExit();
 			}
 
-		} catch (URISyntaxException | IOException e) {
+		} catch (URISyntaxException e) {
 			throw new RuntimeException(e);
 		}
 
 		System.out.println("Please re-start this JAR to complete installation!");
 		System.exit(0);
+		return libraries;
 	}
 
 	private static void copyDir(Path from, Path to) {
@@ -228,18 +266,4 @@ public class FabricServerLauncher {
 			throw new RuntimeException(e);
 		}
 	}
-
-	private static void downloadFile(File file, URL url) {
-		System.out.println(url + " => " + file.getName());
-
-		try {
-			ReadableByteChannel rbc = Channels.newChannel(url.openStream());
-			FileOutputStream fos = new FileOutputStream(file);
-			fos.getChannel().transferFrom(rbc, 0, Long.MAX_VALUE);
-		} catch (IOException e) {
-			System.err.println("Could not download file!");
-			e.printStackTrace();
-			System.exit(-1);
-		}
-	}
 }
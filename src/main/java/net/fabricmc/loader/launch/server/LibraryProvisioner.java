@@ -0,0 +1,302 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.launch.server;
+
+import club.issizler.okyanus.json.installer.Library;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resolves libraries into a Maven-layout cache.
+ *
+ * <p>Every artifact is verified while it is downloaded and moved into place only once complete. Its checksum is
+ * recorded next to it, Maven-style, so later boots only compare recorded hashes instead of touching the network
+ * or re-reading the JAR. As the cache has the layout of a Maven repository, it can also be used as the (local)
+ * repository of other nodes.</p>
+ */
+class LibraryProvisioner {
+	private static final String[] ALGORITHMS = { "SHA-256", "SHA-1" };
+
+	private final Path cacheDir;
+	private final String repository;
+	private final boolean verifyContents;
+	private final boolean allowUnverified;
+	private final int threads;
+
+	/**
+	 * @param cacheDir The Maven-layout cache directory.
+	 * @param repository The repository to fetch all libraries from, or null to use each library's own.
+	 * @param verifyContents Whether to re-hash cached artifacts instead of trusting their recorded checksums.
+	 * @param allowUnverified Whether to accept artifacts for which no checksum is available, instead of failing.
+	 * @param threads The number of concurrent downloads.
+	 */
+	LibraryProvisioner(Path cacheDir, String repository, boolean verifyContents, boolean allowUnverified, int threads) {
+		this.cacheDir = cacheDir;
+		this.repository = repository == null || repository.endsWith("/") ? repository : repository + "/";
+		this.verifyContents = verifyContents;
+		this.allowUnverified = allowUnverified;
+		this.threads = Math.max(1, threads);
+	}
+
+	/**
+	 * @return The cached artifacts, in the order of the given libraries.
+	 * @throws IOException If any library could not be provisioned; the other failures are suppressed into it.
+	 */
+	List<Path> provision(List<Library> libraries) throws IOException {
+		AtomicInteger threadId = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, libraries.size())), (r) -> {
+			Thread thread = new Thread(r, "Fabric Library Provisioner #" + threadId.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		try {
+			List<Future<Path>> futures = new ArrayList<>(libraries.size());
+			for (Library library : libraries) {
+				futures.add(executor.submit(() -> provision(library)));
+			}
+
+			List<Path> paths = new ArrayList<>(libraries.size());
+			IOException failure = null;
+
+			for (int i = 0; i < futures.size(); i++) {
+				try {
+					paths.add(futures.get(i).get());
+				} catch (ExecutionException e) {
+					IOException exception = new IOException("Failed to provision library " + libraries.get(i).name + "!", e.getCause());
+
+					if (failure == null) {
+						failure = exception;
+					} else {
+						failure.addSuppressed(exception);
+					}
+				}
+			}
+
+			if (failure != null) {
+				throw failure;
+			}
+
+			return paths;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while provisioning libraries!", e);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private Path provision(Library library) throws IOException {
+		String path = getArtifactPath(library.name);
+		Path target = cacheDir.resolve(path);
+
+		String algorithm = library.sha256 != null ? "SHA-256" : library.sha1 != null ? "SHA-1" : null;
+		String expected = library.sha256 != null ? library.sha256 : library.sha1;
+
+		if (Files.isRegularFile(target)) {
+			for (String recordedAlgorithm : algorithm != null ? new String[] { algorithm } : ALGORITHMS) {
+				String recorded = readChecksum(getChecksumFile(target, recordedAlgorithm));
+
+				if (recorded != null && (expected == null || recorded.equalsIgnoreCase(expected))
+					&& (!verifyContents || recorded.equalsIgnoreCase(hash(target, recordedAlgorithm)))) {
+					return target;
+				}
+			}
+		}
+
+		URL url = new URL((repository != null ? repository : library.url) + path);
+
+		if (expected == null) {
+			// fall back to the checksums published by the repository
+			for (String remoteAlgorithm : ALGORITHMS) {
+				expected = readChecksum(new URL(url + getChecksumExtension(remoteAlgorithm)));
+
+				if (expected != null) {
+					algorithm = remoteAlgorithm;
+					break;
+				}
+			}
+
+			if (expected == null) {
+				if (!allowUnverified) {
+					throw new IOException("No checksum available for " + url + "! Set fabric.server.allowUnverifiedLibraries to accept it unverified.");
+				}
+
+				// nothing is recorded for unverified artifacts, so a checksum is looked for again on the next boot
+				if (Files.isRegularFile(target)) {
+					return target;
+				}
+
+				System.err.println("No checksum available for " + url + ", using it unverified.");
+				algorithm = ALGORITHMS[0];
+			}
+		}
+
+		download(url, target, algorithm, expected);
+		return target;
+	}
+
+	/**
+	 * Downloads a file, verifying it against the expected checksum and atomically moving it into place.
+	 * The checksum of a verified file is recorded next to it.
+	 *
+	 * @param expected The expected hex-encoded checksum, or null to accept any content without recording it.
+	 */
+	static void download(URL url, Path target, String algorithm, String expected) throws IOException {
+		System.out.println(url + " => " + target);
+
+		Path parent = target.toAbsolutePath().getParent();
+		Files.createDirectories(parent);
+		Path tmp = Files.createTempFile(parent, target.getFileName().toString(), ".part");
+
+		try {
+			MessageDigest digest = getDigest(algorithm);
+
+			try (InputStream stream = new DigestInputStream(url.openStream(), digest)) {
+				Files.copy(stream, tmp, StandardCopyOption.REPLACE_EXISTING);
+			}
+
+			String actual = toHex(digest.digest());
+			if (expected != null && !actual.equalsIgnoreCase(expected)) {
+				throw new IOException("Checksum mismatch for " + url + ": expected " + algorithm + " " + expected + ", got " + actual + "!");
+			}
+
+			move(tmp, target);
+
+			if (expected != null) {
+				writeChecksum(getChecksumFile(target, algorithm), actual);
+			}
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+
+	static String getArtifactPath(String name) throws MalformedURLException {
+		String[] parts = name.split(":");
+		if (parts.length != 3) {
+			throw new MalformedURLException("Invalid library name: " + name);
+		}
+
+		return parts[0].replace('.', '/') + "/" + parts[1] + "/" + parts[2] + "/" + parts[1] + "-" + parts[2] + ".jar";
+	}
+
+	private static Path getChecksumFile(Path file, String algorithm) {
+		return file.resolveSibling(file.getFileName() + getChecksumExtension(algorithm));
+	}
+
+	private static String getChecksumExtension(String algorithm) {
+		return "." + algorithm.replace("-", "").toLowerCase(Locale.ROOT);
+	}
+
+	private static String readChecksum(Path file) throws IOException {
+		if (!Files.isRegularFile(file)) {
+			return null;
+		}
+
+		return readChecksum(file.toUri().toURL());
+	}
+
+	/**
+	 * @return The checksum, or null if the checksum file does not exist or is empty.
+	 * @throws IOException If the checksum file could not be read.
+	 */
+	private static String readChecksum(URL url) throws IOException {
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+			String line = reader.readLine();
+			if (line == null || line.trim().isEmpty()) {
+				return null;
+			}
+
+			// some repositories append the file name after the hash
+			return line.trim().split("\\s+")[0];
+		} catch (FileNotFoundException e) {
+			return null;
+		}
+	}
+
+	private static void writeChecksum(Path file, String checksum) throws IOException {
+		Path tmp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".part");
+
+		try {
+			Files.write(tmp, checksum.getBytes(StandardCharsets.UTF_8));
+			move(tmp, file);
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+
+	private static void move(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static String hash(Path file, String algorithm) throws IOException {
+		MessageDigest digest = getDigest(algorithm);
+		byte[] buffer = new byte[8192];
+
+		try (InputStream stream = Files.newInputStream(file)) {
+			int read;
+			while ((read = stream.read(buffer)) >= 0) {
+				digest.update(buffer, 0, read);
+			}
+		}
+
+		return toHex(digest.digest());
+	}
+
+	private static MessageDigest getDigest(String algorithm) {
+		try {
+			return MessageDigest.getInstance(algorithm);
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		char[] chars = new char[bytes.length * 2];
+
+		for (int i = 0; i < bytes.length; i++) {
+			chars[i * 2] = Character.forDigit((bytes[i] >> 4) & 0xF, 16);
+			chars[i * 2 + 1] = Character.forDigit(bytes[i] & 0xF, 16);
+		}
+
+		return new String(chars);
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.launch.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.spi.FileSystemProvider;
+
+/**
+ * Opens URLs through a file system provider the system class loader cannot see.
+ */
+class ProviderURLStreamHandler extends URLStreamHandler {
+	private final FileSystemProvider provider;
+
+	ProviderURLStreamHandler(FileSystemProvider provider) {
+		this.provider = provider;
+	}
+
+	@Override
+	protected URLConnection openConnection(URL url) throws IOException {
+		final Path path;
+
+		try {
+			path = provider.getPath(url.toURI());
+		} catch (URISyntaxException | IllegalArgumentException e) {
+			throw new IOException("Invalid " + provider.getScheme() + " URL: " + url, e);
+		}
+
+		return new URLConnection(url) {
+			@Override
+			public void connect() {
+				connected = true;
+			}
+
+			@Override
+			public InputStream getInputStream() throws IOException {
+				connect();
+				return provider.newInputStream(path);
+			}
+
+			@Override
+			public long getContentLengthLong() {
+				try {
+					return provider.readAttributes(path, BasicFileAttributes.class).size();
+				} catch (IOException e) {
+					return -1;
+				}
+			}
+		};
+	}
+}
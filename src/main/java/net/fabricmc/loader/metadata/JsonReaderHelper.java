@@ -0,0 +1,208 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.metadata;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import net.fabricmc.loader.api.Version;
+import net.fabricmc.loader.util.Interner;
+import net.fabricmc.loader.util.version.VersionDeserializer;
+import net.fabricmc.loader.util.version.VersionParsingException;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Helpers for the streaming metadata readers, mirroring how Gson binds the equivalent
+ * field types.
+ */
+final class JsonReaderHelper {
+	/** Mod ids, dependency ids and other strings repeated across candidates. */
+	static final Interner<String, String> STRINGS = new Interner<>();
+	private static final JsonParser JSON_PARSER = new JsonParser();
+
+	interface ValueReader<T> {
+		T read(JsonReader reader) throws IOException;
+	}
+
+	private JsonReaderHelper() {
+
+	}
+
+	static void expect(JsonReader reader, JsonToken token, String message) throws IOException {
+		if (reader.peek() != token) {
+			throw new JsonParseException(message);
+		}
+	}
+
+	static boolean isPrimitive(JsonToken token) {
+		return token == JsonToken.STRING || token == JsonToken.NUMBER || token == JsonToken.BOOLEAN;
+	}
+
+	static String readString(JsonReader reader) throws IOException {
+		switch (reader.peek()) {
+			case STRING:
+			case NUMBER:
+				return reader.nextString();
+			case BOOLEAN:
+				return Boolean.toString(reader.nextBoolean());
+			case NULL:
+				reader.nextNull();
+				return null;
+			default:
+				throw new JsonParseException("Expected a string, got " + reader.peek() + " at " + reader.getPath());
+		}
+	}
+
+	static String intern(String s) {
+		return Interner.intern(STRINGS, s);
+	}
+
+	static boolean readBoolean(JsonReader reader) throws IOException {
+		if (reader.peek() == JsonToken.STRING) {
+			return Boolean.parseBoolean(reader.nextString());
+		}
+
+		return reader.nextBoolean();
+	}
+
+	static Version readVersion(JsonReader reader) throws IOException {
+		if (!isPrimitive(reader.peek())) {
+			throw new JsonParseException("Version must be a non-empty string!");
+		}
+
+		try {
+			return VersionDeserializer.deserialize(reader.nextString());
+		} catch (VersionParsingException e) {
+			throw new JsonParseException(e);
+		}
+	}
+
+	/**
+	 * Reads a single string or an array of strings.
+	 */
+	static List<String> readStringOrArray(JsonReader reader, String message) throws IOException {
+		List<String> list = new ArrayList<>();
+
+		if (isPrimitive(reader.peek())) {
+			list.add(reader.nextString());
+		} else if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+			reader.beginArray();
+			while (reader.hasNext()) {
+				list.add(readString(reader));
+			}
+			reader.endArray();
+		} else {
+			throw new JsonParseException(message);
+		}
+
+		return list;
+	}
+
+	static <T> List<T> readList(JsonReader reader, ValueReader<T> valueReader) throws IOException {
+		List<T> list = new ArrayList<>();
+
+		reader.beginArray();
+		while (reader.hasNext()) {
+			list.add(valueReader.read(reader));
+		}
+		reader.endArray();
+
+		return list;
+	}
+
+	static <T> Map<String, T> readMap(JsonReader reader, ValueReader<T> valueReader) throws IOException {
+		Map<String, T> map = new HashMap<>();
+
+		reader.beginObject();
+		while (reader.hasNext()) {
+			map.put(reader.nextName(), valueReader.read(reader));
+		}
+		reader.endObject();
+
+		return map;
+	}
+
+	/**
+	 * Copies the next value to compact UTF-8 encoded JSON without building a tree.
+	 */
+	static byte[] readRaw(JsonReader reader) throws IOException {
+		StringWriter out = new StringWriter();
+		JsonWriter writer = new JsonWriter(out);
+		writer.setLenient(true);
+		int depth = 0;
+
+		do {
+			switch (reader.peek()) {
+				case BEGIN_ARRAY:
+					reader.beginArray();
+					writer.beginArray();
+					depth++;
+					break;
+				case END_ARRAY:
+					reader.endArray();
+					writer.endArray();
+					depth--;
+					break;
+				case BEGIN_OBJECT:
+					reader.beginObject();
+					writer.beginObject();
+					depth++;
+					break;
+				case END_OBJECT:
+					reader.endObject();
+					writer.endObject();
+					depth--;
+					break;
+				case NAME:
+					writer.name(reader.nextName());
+					break;
+				case STRING:
+					writer.value(reader.nextString());
+					break;
+				case NUMBER:
+					writer.jsonValue(reader.nextString());
+					break;
+				case BOOLEAN:
+					writer.value(reader.nextBoolean());
+					break;
+				case NULL:
+					reader.nextNull();
+					writer.nullValue();
+					break;
+				default:
+					throw new JsonParseException("Unexpected " + reader.peek() + " at " + reader.getPath());
+			}
+		} while (depth > 0);
+
+		writer.flush();
+		return out.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	static JsonElement parseRaw(byte[] data) {
+		return JSON_PARSER.parse(new String(data, StandardCharsets.UTF_8));
+	}
+}
@@ -26,7 +26,7 @@ public class MapBackedContactInformation implements ContactInformation {
 	private final Map<String, String> map;
 
 	public MapBackedContactInformation(Map<String, String> map) {
-		this.map = Collections.unmodifiableMap(map);
+		this.map = map instanceof SmallMap ? map : Collections.unmodifiableMap(map);
 	}
 
 	@Override
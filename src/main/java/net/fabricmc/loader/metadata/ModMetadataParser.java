@@ -17,28 +17,25 @@
 package net.fabricmc.loader.metadata;
 
 import com.google.gson.*;
+import com.google.gson.internal.bind.JsonTreeReader;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
 import net.fabricmc.loader.FabricLoader;
 import net.fabricmc.loader.api.Version;
 import net.fabricmc.loader.util.version.VersionDeserializer;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 
 public class ModMetadataParser {
 	public static final int LATEST_VERSION = 1;
 
-	private static final Gson GSON_V1 = new GsonBuilder()
-		.registerTypeAdapter(Version.class, new VersionDeserializer())
-		.registerTypeAdapter(ModMetadataV1.JarEntry.class, new ModMetadataV1.JarEntry.Deserializer())
-		.registerTypeAdapter(ModMetadataV1.IconEntry.class, new ModMetadataV1.IconEntry.Deserializer())
-		.registerTypeAdapter(ModMetadataV1.LicenseEntry.class, new ModMetadataV1.LicenseEntry.Deserializer())
-		.registerTypeAdapter(ModMetadataV1.Person.class, new ModMetadataV1.Person.Deserializer())
-		.registerTypeAdapter(ModMetadataV1.DependencyContainer.class, new ModMetadataV1.DependencyContainer.Deserializer())
-		.registerTypeAdapter(ModMetadataV1.MixinEntry.class, new ModMetadataV1.MixinEntry.Deserializer())
-		.registerTypeAdapter(ModMetadataV1.EntrypointContainer.class, new ModMetadataV1.EntrypointContainer.Deserializer())
-		.registerTypeAdapter(ModMetadataV1.Environment.class, new ModMetadataV1.Environment.Deserializer())
-		.create();
-
 	private static final Gson GSON_V0 = new GsonBuilder()
 		.registerTypeAdapter(Version.class, new VersionDeserializer())
 		.registerTypeAdapter(ModMetadataV0.Side.class, new ModMetadataV0.Side.Deserializer())
@@ -50,6 +47,18 @@ public class ModMetadataParser {
 
 	private static final JsonParser JSON_PARSER = new JsonParser();
 
+	/**
+	 * Drop the strings and dependencies shared between parsed metadata, once no more mods will be parsed.
+	 * Metadata parsed so far keeps its instances.
+	 *
+	 * @return The number of entries dropped.
+	 */
+	public static int clearCaches() {
+		int size = JsonReaderHelper.STRINGS.size();
+		JsonReaderHelper.STRINGS.clear();
+		return size + ModMetadataV1.DependencyContainer.clearCache();
+	}
+
 	private static LoaderModMetadata getMod(FabricLoader loader, JsonObject object) {
 		if (!object.has("schemaVersion")) {
 			return GSON_V0.fromJson(object, ModMetadataV0.class);
@@ -57,7 +66,12 @@ public class ModMetadataParser {
 			//noinspection SwitchStatementWithTooFewBranches
 			switch (object.get("schemaVersion").getAsInt()) {
 				case 1:
-					return GSON_V1.fromJson(object, ModMetadataV1.class);
+					try (JsonReader reader = new JsonTreeReader(object)) {
+						reader.beginObject();
+						return readToEnd(reader, ModMetadataV1.read(reader));
+					} catch (IOException e) {
+						throw new JsonIOException(e);
+					}
 				default:
 					loader.getLogger().warn("Mod ID " + (object.has("id") ? object.get("id").getAsString() : "<unknown>") + " has invalid schema version: " + object.get("schemaVersion").getAsInt());
 					return null;
@@ -66,14 +80,114 @@ public class ModMetadataParser {
 	}
 
 	public static LoaderModMetadata[] getMods(FabricLoader loader, InputStream in) {
-		JsonElement el = JSON_PARSER.parse(new InputStreamReader(in));
-		if (el.isJsonObject()) {
-			LoaderModMetadata metadata = getMod(loader, el.getAsJsonObject());
-			if (metadata != null) {
-				return new LoaderModMetadata[] { metadata };
+		byte[] data;
+
+		try {
+			data = readAllBytes(in);
+		} catch (IOException e) {
+			throw new JsonIOException(e);
+		}
+
+		LoaderModMetadata metadata;
+
+		try {
+			metadata = readMod(loader, data);
+		} catch (MalformedJsonException | EOFException | IllegalStateException | NumberFormatException e) {
+			// EOF past the first token means the document is truncated
+			throw new JsonSyntaxException(e);
+		} catch (IOException e) {
+			throw new JsonIOException(e);
+		}
+
+		return metadata != null ? new LoaderModMetadata[] { metadata } : new LoaderModMetadata[0];
+	}
+
+	/**
+	 * Reads the metadata in a single streaming pass if "schemaVersion" is the first key, as
+	 * it usually is. Otherwise, the top level keys are scanned for it before reading again.
+	 */
+	private static LoaderModMetadata readMod(FabricLoader loader, byte[] data) throws IOException {
+		// null if absent, which means schema version 0
+		Integer schemaVersion = null;
+
+		try (JsonReader reader = createReader(data)) {
+			JsonToken token;
+
+			try {
+				token = reader.peek();
+			} catch (EOFException e) {
+				// an empty document, which has no mods
+				return null;
 			}
+
+			if (token != JsonToken.BEGIN_OBJECT) {
+				reader.skipValue();
+				checkEnd(reader);
+				return null;
+			}
+
+			reader.beginObject();
+			if (reader.hasNext()) {
+				if (reader.nextName().equals("schemaVersion")) {
+					return reader.nextInt() == 1 ? readToEnd(reader, ModMetadataV1.read(reader)) : readModTree(loader, data);
+				}
+
+				reader.skipValue();
+				while (reader.hasNext()) {
+					if (reader.nextName().equals("schemaVersion")) {
+						schemaVersion = reader.nextInt();
+					} else {
+						reader.skipValue();
+					}
+				}
+			}
+		}
+
+		if (schemaVersion != null && schemaVersion != 1) {
+			return readModTree(loader, data);
+		}
+
+		try (JsonReader reader = createReader(data)) {
+			reader.beginObject();
+			return readToEnd(reader, schemaVersion == null ? ModMetadataV0.read(reader) : ModMetadataV1.read(reader));
+		}
+	}
+
+	private static JsonReader createReader(byte[] data) {
+		JsonReader reader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(data), StandardCharsets.UTF_8));
+		reader.setLenient(true);
+		return reader;
+	}
+
+	private static void checkEnd(JsonReader reader) throws IOException {
+		if (reader.peek() != JsonToken.END_DOCUMENT) {
+			throw new JsonSyntaxException("Did not consume the entire document.");
 		}
+	}
+
+	private static LoaderModMetadata readToEnd(JsonReader reader, LoaderModMetadata metadata) throws IOException {
+		reader.endObject();
+		checkEnd(reader);
+		return metadata;
+	}
+
+	private static byte[] readAllBytes(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(in.available(), 1024));
+		byte[] buffer = new byte[4096];
+		int read;
+
+		while ((read = in.read(buffer)) >= 0) {
+			out.write(buffer, 0, read);
+		}
+
+		return out.toByteArray();
+	}
 
-		return new LoaderModMetadata[0];
+	/**
+	 * Parses through a {@link JsonElement} tree, used for unknown schema versions.
+	 */
+	static LoaderModMetadata readModTree(FabricLoader loader, byte[] data) {
+		JsonElement el = JSON_PARSER.parse(new InputStreamReader(new ByteArrayInputStream(data), StandardCharsets.UTF_8));
+		return el.isJsonObject() ? getMod(loader, el.getAsJsonObject()) : null;
 	}
 }
@@ -19,11 +19,14 @@ package net.fabricmc.loader.metadata;
 import com.google.common.base.Joiner;
 import com.google.common.collect.Lists;
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.loader.api.Version;
 import net.fabricmc.loader.api.metadata.ContactInformation;
 import net.fabricmc.loader.api.metadata.ModDependency;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.*;
 import java.util.regex.Matcher;
@@ -58,6 +61,79 @@ public class ModMetadataV0 implements LoaderModMetadata {
 	private Person[] contributors = new Person[0];
 	private String license = "";
 
+	/**
+	 * Reads the members of a metadata object, leaving the reader before its end.
+	 */
+	static ModMetadataV0 read(JsonReader reader) throws IOException {
+		ModMetadataV0 metadata = new ModMetadataV0();
+
+		while (reader.hasNext()) {
+			String key = reader.nextName();
+			if (reader.peek() == JsonToken.NULL) {
+				reader.nextNull();
+				continue;
+			}
+
+			switch (key) {
+				case "id":
+					metadata.id = JsonReaderHelper.readString(reader);
+					break;
+				case "version":
+					metadata.version = JsonReaderHelper.readVersion(reader);
+					break;
+				case "requires":
+					metadata.requires = DependencyMap.read(reader);
+					break;
+				case "conflicts":
+					metadata.conflicts = DependencyMap.read(reader);
+					break;
+				case "languageAdapter":
+					metadata.languageAdapter = JsonReaderHelper.readString(reader);
+					break;
+				case "mixins":
+					metadata.mixins = Mixins.read(reader);
+					break;
+				case "side":
+					metadata.side = Side.valueOf(JsonReaderHelper.readString(reader).toUpperCase(Locale.ROOT));
+					break;
+				case "lazilyLoaded":
+					metadata.lazilyLoaded = JsonReaderHelper.readBoolean(reader);
+					break;
+				case "initializer":
+					metadata.initializer = JsonReaderHelper.readString(reader);
+					break;
+				case "initializers":
+					metadata.initializers = JsonReaderHelper.readList(reader, JsonReaderHelper::readString).toArray(new String[0]);
+					break;
+				case "name":
+					metadata.name = JsonReaderHelper.readString(reader);
+					break;
+				case "description":
+					metadata.description = JsonReaderHelper.readString(reader);
+					break;
+				case "links":
+					metadata.links = Links.read(reader);
+					break;
+				case "recommends":
+					metadata.recommends = DependencyMap.read(reader);
+					break;
+				case "authors":
+					metadata.authors = JsonReaderHelper.readList(reader, Person::read).toArray(new Person[0]);
+					break;
+				case "contributors":
+					metadata.contributors = JsonReaderHelper.readList(reader, Person::read).toArray(new Person[0]);
+					break;
+				case "license":
+					metadata.license = JsonReaderHelper.readString(reader);
+					break;
+				default:
+					reader.skipValue();
+			}
+		}
+
+		return metadata;
+	}
+
 	@Override
 	public int getSchemaVersion() {
 		return 0;
@@ -236,6 +312,39 @@ public class ModMetadataV0 implements LoaderModMetadata {
 			return server;
 		}
 
+		static Mixins read(JsonReader reader) throws IOException {
+			JsonReaderHelper.expect(reader, JsonToken.BEGIN_OBJECT, "Expected mixins to be an object.");
+			Mixins mixins = new Mixins();
+
+			reader.beginObject();
+			while (reader.hasNext()) {
+				String name = reader.nextName();
+				String[] configs;
+
+				if (reader.peek() == JsonToken.NULL) {
+					reader.nextNull();
+					configs = new String[0];
+				} else {
+					configs = JsonReaderHelper.readStringOrArray(reader, "Expected " + name + " to be a string or an array of strings").toArray(new String[0]);
+				}
+
+				switch (name) {
+					case "client":
+						mixins.client = configs;
+						break;
+					case "common":
+						mixins.common = configs;
+						break;
+					case "server":
+						mixins.server = configs;
+						break;
+				}
+			}
+			reader.endObject();
+
+			return mixins;
+		}
+
 		public static class Deserializer implements JsonDeserializer<Mixins> {
 			@Override
 			public Mixins deserialize(JsonElement element, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
@@ -281,6 +390,29 @@ public class ModMetadataV0 implements LoaderModMetadata {
 			super(map);
 		}
 
+		static Links read(JsonReader reader) throws IOException {
+			Map<String, String> map = new HashMap<>();
+
+			if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+				reader.beginObject();
+				while (reader.hasNext()) {
+					String key = reader.nextName();
+					if (key.equals("homepage") || key.equals("issues") || key.equals("sources")) {
+						map.put(key, JsonReaderHelper.readString(reader));
+					} else {
+						reader.skipValue();
+					}
+				}
+				reader.endObject();
+			} else if (JsonReaderHelper.isPrimitive(reader.peek())) {
+				map.put("homepage", reader.nextString());
+			} else {
+				throw new JsonParseException("Expected links to be an object or string");
+			}
+
+			return new Links(map);
+		}
+
 		public static class Deserializer implements JsonDeserializer<Links> {
 			@Override
 			public Links deserialize(JsonElement element, Type resultType, JsonDeserializationContext context) throws JsonParseException {
@@ -305,6 +437,12 @@ public class ModMetadataV0 implements LoaderModMetadata {
 	public static class DependencyMap extends HashMap<String, Dependency> {
 		private List<ModDependency> modDepList;
 
+		static DependencyMap read(JsonReader reader) throws IOException {
+			DependencyMap map = new DependencyMap();
+			map.putAll(JsonReaderHelper.readMap(reader, Dependency::read));
+			return map;
+		}
+
 		Collection<ModDependency> toModDependencies() {
 			if (modDepList == null) {
 				List<ModDependency> list = new ArrayList<>(this.size());
@@ -378,6 +516,42 @@ public class ModMetadataV0 implements LoaderModMetadata {
 			return "[" + Joiner.on(", ").join(versionMatchers) + "]";
 		}
 
+		static Dependency read(JsonReader reader) throws IOException {
+			if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+				String[] versionMatchers = null;
+				Side side = Side.UNIVERSAL;
+
+				reader.beginObject();
+				while (reader.hasNext()) {
+					switch (reader.nextName()) {
+						case "side":
+							side = Side.valueOf(JsonReaderHelper.readString(reader).toUpperCase(Locale.ROOT));
+							break;
+						case "version":
+							versionMatchers = readVersionMatchers(reader);
+							break;
+						default:
+							reader.skipValue();
+					}
+				}
+				reader.endObject();
+
+				if (versionMatchers == null) {
+					throw new JsonParseException("Missing version element");
+				}
+
+				return new Dependency(versionMatchers, side);
+			} else if (JsonReaderHelper.isPrimitive(reader.peek()) || reader.peek() == JsonToken.BEGIN_ARRAY) {
+				return new Dependency(readVersionMatchers(reader), Side.UNIVERSAL);
+			}
+
+			throw new JsonParseException("Expected dependency to be an object");
+		}
+
+		private static String[] readVersionMatchers(JsonReader reader) throws IOException {
+			return JsonReaderHelper.readStringOrArray(reader, "Expected version to be a string or array").toArray(new String[0]);
+		}
+
 		public static class Deserializer implements JsonDeserializer<Dependency> {
 			private String[] deserializeVersionMatchers(JsonElement versionEl) {
 				String[] versionMatchers;
@@ -454,34 +628,68 @@ public class ModMetadataV0 implements LoaderModMetadata {
 			return contact;
 		}
 
-		public static class Deserializer implements JsonDeserializer<Person> {
+		private static final Pattern WEBSITE_PATTERN = Pattern.compile("\\((.+)\\)");
+		private static final Pattern EMAIL_PATTERN = Pattern.compile("<(.+)>");
 
-			private static final Pattern WEBSITE_PATTERN = Pattern.compile("\\((.+)\\)");
-			private static final Pattern EMAIL_PATTERN = Pattern.compile("<(.+)>");
+		/**
+		 * Parses the "Name <email> (website)" form.
+		 */
+		private static Person parse(String person) {
+			List<String> parts = Lists.newArrayList(person.split(" "));
 
-			@Override
-			public Person deserialize(JsonElement element, Type type, JsonDeserializationContext jsonDeserializationContext) throws JsonParseException {
-				if (element.isJsonPrimitive()) {
-					String person = element.getAsString();
-					List<String> parts = Lists.newArrayList(person.split(" "));
+			String name, email = "", website = "";
 
-					String name, email = "", website = "";
+			Matcher websiteMatcher = WEBSITE_PATTERN.matcher(parts.get(parts.size() - 1));
+			if (websiteMatcher.matches()) {
+				website = websiteMatcher.group(1);
+				parts.remove(parts.size() - 1);
+			}
 
-					Matcher websiteMatcher = WEBSITE_PATTERN.matcher(parts.get(parts.size() - 1));
-					if (websiteMatcher.matches()) {
-						website = websiteMatcher.group(1);
-						parts.remove(parts.size() - 1);
-					}
+			Matcher emailMatcher = EMAIL_PATTERN.matcher(parts.get(parts.size() - 1));
+			if (emailMatcher.matches()) {
+				email = emailMatcher.group(1);
+				parts.remove(parts.size() - 1);
+			}
+
+			name = String.join(" ", parts);
 
-					Matcher emailMatcher = EMAIL_PATTERN.matcher(parts.get(parts.size() - 1));
-					if (emailMatcher.matches()) {
-						email = emailMatcher.group(1);
-						parts.remove(parts.size() - 1);
+			return new Person(name, email, website);
+		}
+
+		static Person read(JsonReader reader) throws IOException {
+			if (JsonReaderHelper.isPrimitive(reader.peek())) {
+				return parse(reader.nextString());
+			} else if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+				String name = "", email = "", website = "";
+
+				reader.beginObject();
+				while (reader.hasNext()) {
+					switch (reader.nextName()) {
+						case "name":
+							name = JsonReaderHelper.readString(reader);
+							break;
+						case "email":
+							email = JsonReaderHelper.readString(reader);
+							break;
+						case "website":
+							website = JsonReaderHelper.readString(reader);
+							break;
+						default:
+							reader.skipValue();
 					}
+				}
+				reader.endObject();
 
-					name = String.join(" ", parts);
+				return new Person(name, email, website);
+			}
+			throw new RuntimeException("Expected person to be a string");
+		}
 
-					return new Person(name, email, website);
+		public static class Deserializer implements JsonDeserializer<Person> {
+			@Override
+			public Person deserialize(JsonElement element, Type type, JsonDeserializationContext jsonDeserializationContext) throws JsonParseException {
+				if (element.isJsonPrimitive()) {
+					return parse(element.getAsString());
 				} else if (element.isJsonObject()) {
 					JsonObject object = element.getAsJsonObject();
 					String name = object.has("name") ? object.get("name").getAsString() : "";
@@ -16,54 +16,148 @@
 
 package net.fabricmc.loader.metadata;
 
-import com.google.gson.*;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.loader.api.Version;
 import net.fabricmc.loader.api.metadata.ContactInformation;
 import net.fabricmc.loader.api.metadata.ModDependency;
+import net.fabricmc.loader.util.Interner;
 import net.fabricmc.loader.util.version.VersionParsingException;
 import net.fabricmc.loader.util.version.VersionPredicateParser;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
 
 /**
  * Definition class for "fabric.mod.json" files.
+ *
+ * Every candidate's metadata is kept until resolution finishes, so it is stored compactly:
+ * repeated strings, versions and dependencies are interned, maps are array-backed, absent
+ * optional values share one empty instance, and custom values are kept as raw JSON until
+ * they are requested.
  */
 public class ModMetadataV1 implements LoaderModMetadata {
+	private static final JarEntry[] NO_JARS = new JarEntry[0];
+	private static final MixinEntry[] NO_MIXINS = new MixinEntry[0];
+	private static final Person[] NO_PEOPLE = new Person[0];
+
 	// Required
 	private String id;
 	private Version version;
 
 	// Optional (mod loading)
 	private Environment environment = Environment.UNIVERSAL;
-	private EntrypointContainer entrypoints = new EntrypointContainer();
-	private JarEntry[] jars = new JarEntry[0];
-	private MixinEntry[] mixins = new MixinEntry[0];
+	private EntrypointContainer entrypoints = EntrypointContainer.EMPTY;
+	private JarEntry[] jars = NO_JARS;
+	private MixinEntry[] mixins = NO_MIXINS;
 
 	// Optional (dependency resolution)
-	private DependencyContainer depends = new DependencyContainer();
-	private DependencyContainer recommends = new DependencyContainer();
-	private DependencyContainer suggests = new DependencyContainer();
-	private DependencyContainer conflicts = new DependencyContainer();
-	private DependencyContainer breaks = new DependencyContainer();
+	private DependencyContainer depends = DependencyContainer.EMPTY;
+	private DependencyContainer recommends = DependencyContainer.EMPTY;
+	private DependencyContainer suggests = DependencyContainer.EMPTY;
+	private DependencyContainer conflicts = DependencyContainer.EMPTY;
+	private DependencyContainer breaks = DependencyContainer.EMPTY;
 
 	// Optional (metadata)
 	private String name;
 	private String description = "";
-	private Person[] authors = new Person[0];
-	private Person[] contributors = new Person[0];
-	private Map<String, String> contact = new HashMap<>();
-	private LicenseEntry license = new LicenseEntry();
-	private IconEntry icon = new IconEntry();
+	private Person[] authors = NO_PEOPLE;
+	private Person[] contributors = NO_PEOPLE;
+	private Map<String, String> contact = Collections.emptyMap();
+	private LicenseEntry license = LicenseEntry.EMPTY;
+	private IconEntry icon = IconEntry.EMPTY;
 
 	// Optional (language adapter providers)
-	private Map<String, String> languageAdapters = new HashMap<>();
+	private Map<String, String> languageAdapters = Collections.emptyMap();
+
+	// Optional (custom), as UTF-8 encoded JSON
+	private Map<String, byte[]> custom = Collections.emptyMap();
+
+	/**
+	 * Reads the members of a metadata object, leaving the reader before its end.
+	 */
+	static ModMetadataV1 read(JsonReader reader) throws IOException {
+		ModMetadataV1 metadata = new ModMetadataV1();
+
+		while (reader.hasNext()) {
+			String key = reader.nextName();
+			if (reader.peek() == JsonToken.NULL) {
+				reader.nextNull();
+				continue;
+			}
+
+			switch (key) {
+				case "id":
+					metadata.id = JsonReaderHelper.intern(JsonReaderHelper.readString(reader));
+					break;
+				case "version":
+					metadata.version = JsonReaderHelper.readVersion(reader);
+					break;
+				case "environment":
+					metadata.environment = Environment.read(reader);
+					break;
+				case "entrypoints":
+					metadata.entrypoints = EntrypointContainer.read(reader);
+					break;
+				case "jars":
+					metadata.jars = JsonReaderHelper.readList(reader, JarEntry::read).toArray(NO_JARS);
+					break;
+				case "mixins":
+					metadata.mixins = JsonReaderHelper.readList(reader, MixinEntry::read).toArray(NO_MIXINS);
+					break;
+				case "depends":
+					metadata.depends = DependencyContainer.read(reader);
+					break;
+				case "recommends":
+					metadata.recommends = DependencyContainer.read(reader);
+					break;
+				case "suggests":
+					metadata.suggests = DependencyContainer.read(reader);
+					break;
+				case "conflicts":
+					metadata.conflicts = DependencyContainer.read(reader);
+					break;
+				case "breaks":
+					metadata.breaks = DependencyContainer.read(reader);
+					break;
+				case "name":
+					metadata.name = JsonReaderHelper.readString(reader);
+					break;
+				case "description":
+					metadata.description = JsonReaderHelper.readString(reader);
+					break;
+				case "authors":
+					metadata.authors = JsonReaderHelper.readList(reader, Person::read).toArray(NO_PEOPLE);
+					break;
+				case "contributors":
+					metadata.contributors = JsonReaderHelper.readList(reader, Person::read).toArray(NO_PEOPLE);
+					break;
+				case "contact":
+					metadata.contact = SmallMap.copyOf(JsonReaderHelper.readMap(reader, JsonReaderHelper::readString));
+					break;
+				case "license":
+					metadata.license = LicenseEntry.read(reader);
+					break;
+				case "icon":
+					metadata.icon = IconEntry.read(reader);
+					break;
+				case "languageAdapters":
+					metadata.languageAdapters = SmallMap.copyOf(JsonReaderHelper.readMap(reader, JsonReaderHelper::readString));
+					break;
+				case "custom":
+					metadata.custom = SmallMap.copyOf(JsonReaderHelper.readMap(reader, JsonReaderHelper::readRaw));
+					break;
+				default:
+					reader.skipValue();
+			}
+		}
 
-	// Optional (custom)
-	private Map<String, JsonElement> custom = new HashMap<>();
+		return metadata;
+	}
 
 	@Override
 	public String getType() {
@@ -177,7 +271,8 @@ public class ModMetadataV1 implements LoaderModMetadata {
 
 	@Override
 	public JsonElement getCustomElement(String key) {
-		return custom.get(key);
+		byte[] data = custom.get(key);
+		return data != null ? JsonReaderHelper.parseRaw(data) : null;
 	}
 
 	@Override
@@ -211,103 +306,115 @@ public class ModMetadataV1 implements LoaderModMetadata {
 	}
 
 	public static class DependencyContainer {
-		private final Map<String, List<String>> matcherStrings = new HashMap<>();
-		private final List<ModDependency> dependencies = new ArrayList<>();
+		private static final DependencyContainer EMPTY = new DependencyContainer(Collections.emptyList());
+		private static final Interner<String, Dependency> DEPENDENCIES = new Interner<>();
 
-		public static class Deserializer implements JsonDeserializer<DependencyContainer> {
-			@Override
-			public DependencyContainer deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-				if (!json.isJsonObject()) {
-					throw new RuntimeException("Dependency container must be an object!");
-				}
+		private final List<ModDependency> dependencies;
 
-				DependencyContainer ctr = new DependencyContainer();
-				JsonObject obj = json.getAsJsonObject();
+		private DependencyContainer(List<ModDependency> dependencies) {
+			this.dependencies = dependencies;
+		}
+
+		static int clearCache() {
+			int size = DEPENDENCIES.size();
+			DEPENDENCIES.clear();
+			return size;
+		}
 
-				for (Map.Entry<String, JsonElement> entry : obj.entrySet()) {
-					List<String> matcherStringList = new ArrayList<>();
+		static DependencyContainer read(JsonReader reader) throws IOException {
+			JsonReaderHelper.expect(reader, JsonToken.BEGIN_OBJECT, "Dependency container must be an object!");
+			List<ModDependency> dependencies = new ArrayList<>();
 
-					if (entry.getValue().isJsonPrimitive()) {
-						matcherStringList.add(entry.getValue().getAsString());
-					} else if (entry.getValue().isJsonArray()) {
-						JsonArray array = entry.getValue().getAsJsonArray();
-						array.forEach((e) -> matcherStringList.add(e.getAsString()));
-					} else {
-						throw new RuntimeException("Dependency version range must be a string or string array!");
-					}
+			reader.beginObject();
+			while (reader.hasNext()) {
+				String id = reader.nextName();
+				String[] matchers = JsonReaderHelper.readStringOrArray(reader, "Dependency version range must be a string or string array!").toArray(new String[0]);
+				Dependency dependency = new Dependency(JsonReaderHelper.intern(id), matchers);
+				dependencies.add(DEPENDENCIES.intern(dependency.toString(), (k) -> dependency));
+			}
+			reader.endObject();
+
+			return dependencies.isEmpty() ? EMPTY : new DependencyContainer(Arrays.asList(dependencies.toArray(new ModDependency[0])));
+		}
+	}
 
-					String id = entry.getKey();
-					ctr.matcherStrings.put(id, matcherStringList);
-
-					String depAsStr;
-					{
-						StringBuilder builder = new StringBuilder("{");
-						builder.append(id);
-						builder.append(" @ [");
-						for (int i = 0; i < matcherStringList.size(); i++) {
-							if (i > 0) {
-								builder.append(" || ");
-							}
-							builder.append(matcherStringList.get(i));
-						}
-						builder.append("]}");
-
-						depAsStr = builder.toString();
+	/**
+	 * Immutable, so that identical dependencies of different mods can share one instance.
+	 */
+	private static final class Dependency implements ModDependency {
+		private static final Version SIMULATED_FABRIC_LOADER_VERSION;
+
+		private final String id;
+		private final String[] matchers;
+
+		Dependency(String id, String[] matchers) {
+			this.id = id;
+			this.matchers = matchers;
+
+			for (int i = 0; i < matchers.length; i++) {
+				matchers[i] = JsonReaderHelper.intern(matchers[i]);
+			}
+		}
+
+		@Override
+		public String getModId() {
+			return isFabricLoader() ? "okyanus" : id;
+		}
+
+		private boolean isFabricLoader() {
+			return id.equals("fabricloader");
+		}
+
+		@Override
+		public boolean matches(Version version) {
+			if (isFabricLoader()) {
+				version = SIMULATED_FABRIC_LOADER_VERSION;
+			}
+
+			for (String s : matchers) {
+				try {
+					if (VersionPredicateParser.matches(version, s)) {
+						return true;
 					}
+				} catch (VersionParsingException e) {
+					e.printStackTrace();
+					return false;
+				}
+			}
 
-					ctr.dependencies.add(new ModDependency() {
-						private boolean wasFabric = false;
-
-						@Override
-						public String getModId() {
-							if (id.equals("fabricloader")) {
-								wasFabric = true;
-								return "okyanus";
-							}
-
-							return id;
-						}
-
-						@Override
-						public boolean matches(Version version) {
-
-							if (wasFabric) {
-								try {
-									version = Version.parse("0.4.8"); // Simulated Fabric Loader Version
-								} catch (VersionParsingException e) {
-									e.printStackTrace();
-								}
-							}
-
-							for (String s : matcherStringList) {
-								try {
-									if (VersionPredicateParser.matches(version, s)) {
-										return true;
-									}
-								} catch (VersionParsingException e) {
-									e.printStackTrace();
-									return false;
-								}
-							}
-
-							return false;
-						}
-
-						@Override
-						public String toString() {
-							return depAsStr;
-						}
-					});
+			return false;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder builder = new StringBuilder("{");
+			builder.append(id);
+			builder.append(" @ [");
+			for (int i = 0; i < matchers.length; i++) {
+				if (i > 0) {
+					builder.append(" || ");
 				}
+				builder.append(matchers[i]);
+			}
+			builder.append("]}");
 
-				return ctr;
+			return builder.toString();
+		}
+
+		static {
+			try {
+				SIMULATED_FABRIC_LOADER_VERSION = Version.parse("0.4.8");
+			} catch (VersionParsingException e) {
+				throw new RuntimeException(e);
 			}
 		}
 	}
 
 	public static class Person implements net.fabricmc.loader.api.metadata.Person {
+		private static final MapBackedContactInformation NO_CONTACT = new MapBackedContactInformation(Collections.emptyMap());
+
 		private String name;
-		private MapBackedContactInformation contact = new MapBackedContactInformation(Collections.emptyMap());
+		private MapBackedContactInformation contact = NO_CONTACT;
 
 		@Override
 		public String getName() {
@@ -319,31 +426,35 @@ public class ModMetadataV1 implements LoaderModMetadata {
 			return contact;
 		}
 
-		public static class Deserializer implements JsonDeserializer<Person> {
-			@Override
-			public Person deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-				Person person = new Person();
-
-				if (json.isJsonObject()) {
-					JsonObject obj = json.getAsJsonObject();
-					if (!obj.has("name")) {
-						throw new JsonParseException("Person object must have a 'name' field!");
-					}
-
-					person.name = obj.get("name").getAsString();
-					if (obj.has("contact")) {
-						person.contact = new MapBackedContactInformation(
-							context.deserialize(obj.get("contact"), TypeToken.getParameterized(HashMap.class, String.class, String.class).getType())
-						);
+		static Person read(JsonReader reader) throws IOException {
+			Person person = new Person();
+
+			if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+				reader.beginObject();
+				while (reader.hasNext()) {
+					switch (reader.nextName()) {
+						case "name":
+							person.name = JsonReaderHelper.readString(reader);
+							break;
+						case "contact":
+							person.contact = new MapBackedContactInformation(SmallMap.copyOf(JsonReaderHelper.readMap(reader, JsonReaderHelper::readString)));
+							break;
+						default:
+							reader.skipValue();
 					}
-				} else if (json.isJsonPrimitive()) {
-					person.name = json.getAsString();
-				} else {
-					throw new JsonParseException("Person type must be an object or string!");
 				}
+				reader.endObject();
 
-				return person;
+				if (person.name == null) {
+					throw new JsonParseException("Person object must have a 'name' field!");
+				}
+			} else if (JsonReaderHelper.isPrimitive(reader.peek())) {
+				person.name = reader.nextString();
+			} else {
+				throw new JsonParseException("Person type must be an object or string!");
 			}
+
+			return person;
 		}
 	}
 
@@ -355,71 +466,87 @@ public class ModMetadataV1 implements LoaderModMetadata {
 			return file;
 		}
 
-		public static class Deserializer implements JsonDeserializer<JarEntry> {
-			@Override
-			public JarEntry deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-				JarEntry entry = new JarEntry();
-				if (json.isJsonObject()) {
-					JsonObject obj = json.getAsJsonObject();
-					if (!obj.has("file")) {
-						throw new JsonParseException("Missing mandatory key 'file' in JAR entry!");
-					}
+		static JarEntry read(JsonReader reader) throws IOException {
+			JsonReaderHelper.expect(reader, JsonToken.BEGIN_OBJECT, "Invalid type for JAR entry!");
+			JarEntry entry = new JarEntry();
 
-					entry.file = obj.get("file").getAsString();
+			reader.beginObject();
+			while (reader.hasNext()) {
+				if (reader.nextName().equals("file")) {
+					entry.file = JsonReaderHelper.readString(reader);
 				} else {
-					throw new JsonParseException("Invalid type for JAR entry!");
+					reader.skipValue();
 				}
+			}
+			reader.endObject();
 
-				return entry;
+			if (entry.file == null) {
+				throw new JsonParseException("Missing mandatory key 'file' in JAR entry!");
 			}
+
+			return entry;
 		}
 	}
 
 	public static class IconEntry {
+		private static final IconEntry EMPTY = new IconEntry();
+
 		private String icon;
 		private SortedMap<Integer, String> iconMap;
 
-		public static class Deserializer implements JsonDeserializer<IconEntry> {
-			@Override
-			public IconEntry deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-				IconEntry entry = new IconEntry();
-				if (json.isJsonPrimitive()) {
-					entry.icon = json.getAsString();
-				} else if (json.isJsonObject()) {
-					entry.iconMap = new TreeMap<>(Comparator.naturalOrder());
-
-					JsonObject obj = json.getAsJsonObject();
-					for (Map.Entry<String, JsonElement> e : obj.entrySet()) {
-						int size;
-						try {
-							size = Integer.parseInt(e.getKey());
-						} catch (NumberFormatException ex) {
-							throw new JsonParseException("Could not parse icon size '" + e.getKey() + "'!", ex);
-						}
-
-						if (size < 1) {
-							throw new JsonParseException("Size must be positive!");
-						} else if (!e.getValue().isJsonPrimitive()) {
-							throw new JsonParseException("Icon value must be a string!");
-						}
-
-						entry.iconMap.put(size, e.getValue().getAsString());
-					}
+		static IconEntry read(JsonReader reader) throws IOException {
+			IconEntry entry = new IconEntry();
 
-					if (entry.iconMap.isEmpty()) {
-						throw new JsonParseException("Icon object must not be empty!");
+			if (JsonReaderHelper.isPrimitive(reader.peek())) {
+				entry.icon = reader.nextString();
+			} else if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+				entry.iconMap = new TreeMap<>(Comparator.naturalOrder());
+
+				reader.beginObject();
+				while (reader.hasNext()) {
+					String key = reader.nextName();
+					if (!JsonReaderHelper.isPrimitive(reader.peek())) {
+						throw new JsonParseException("Icon value must be a string!");
 					}
-				} else {
-					throw new JsonParseException("Icon entry must be an object or string!");
+
+					entry.iconMap.put(parseSize(key), reader.nextString());
+				}
+				reader.endObject();
+
+				if (entry.iconMap.isEmpty()) {
+					throw new JsonParseException("Icon object must not be empty!");
 				}
+			} else {
+				throw new JsonParseException("Icon entry must be an object or string!");
+			}
+
+			return entry;
+		}
 
-				return entry;
+		private static int parseSize(String key) {
+			int size;
+			try {
+				size = Integer.parseInt(key);
+			} catch (NumberFormatException ex) {
+				throw new JsonParseException("Could not parse icon size '" + key + "'!", ex);
 			}
+
+			if (size < 1) {
+				throw new JsonParseException("Size must be positive!");
+			}
+
+			return size;
 		}
 	}
 
 	public static class EntrypointContainer {
-		private final Map<String, List<EntrypointMetadata>> metadataMap = new HashMap<>();
+		private static final EntrypointContainer EMPTY = new EntrypointContainer(Collections.emptyMap());
+
+		private final Map<String, List<EntrypointMetadata>> metadataMap;
+
+		private EntrypointContainer(Map<String, List<EntrypointMetadata>> metadataMap) {
+			this.metadataMap = metadataMap;
+		}
 
 		static class Metadata implements EntrypointMetadata {
 			private final String adapter;
@@ -441,43 +568,58 @@ public class ModMetadataV1 implements LoaderModMetadata {
 			}
 		}
 
-		public static class Deserializer implements JsonDeserializer<EntrypointContainer> {
-			@Override
-			public EntrypointContainer deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-				if (!json.isJsonObject()) {
-					throw new JsonParseException("Entrypoints must be an object!");
+		static EntrypointContainer read(JsonReader reader) throws IOException {
+			JsonReaderHelper.expect(reader, JsonToken.BEGIN_OBJECT, "Entrypoints must be an object!");
+			Map<String, List<EntrypointMetadata>> metadataMap = new LinkedHashMap<>();
+
+			reader.beginObject();
+			while (reader.hasNext()) {
+				String key = reader.nextName();
+				JsonReaderHelper.expect(reader, JsonToken.BEGIN_ARRAY, "Entrypoint list must be an array!");
+				List<EntrypointMetadata> metadata = JsonReaderHelper.readList(reader, EntrypointContainer::readMetadata);
+
+				if (!metadata.isEmpty()) {
+					metadataMap.computeIfAbsent(key, (t) -> new ArrayList<>()).addAll(metadata);
 				}
+			}
+			reader.endObject();
 
-				JsonObject obj = json.getAsJsonObject();
-				EntrypointContainer ctr = new EntrypointContainer();
-
-				for (Map.Entry<String, JsonElement> entry : obj.entrySet()) {
-					String key = entry.getKey();
-					List<EntrypointMetadata> metadata = new ArrayList<>();
-
-					if (entry.getValue().isJsonArray()) {
-						for (JsonElement element : entry.getValue().getAsJsonArray()) {
-							if (element.isJsonObject()) {
-								JsonObject entObj = element.getAsJsonObject();
-								String adapter = entObj.has("adapter") ? entObj.get("adapter").getAsString() : "default";
-								String value = entObj.get("value").getAsString();
-
-								metadata.add(new Metadata(adapter, value));
-							} else {
-								metadata.add(new Metadata("default", element.getAsString()));
-							}
-						}
-					} else {
-						throw new JsonParseException("Entrypoint list must be an array!");
-					}
+			if (metadataMap.isEmpty()) {
+				return EMPTY;
+			}
 
-					if (!metadata.isEmpty()) {
-						ctr.metadataMap.computeIfAbsent(key, (t) -> new ArrayList<>()).addAll(metadata);
-					}
+			metadataMap.replaceAll((key, list) -> list.size() == 1 ? Collections.singletonList(list.get(0)) : Arrays.asList(list.toArray(new EntrypointMetadata[0])));
+			return new EntrypointContainer(SmallMap.copyOf(metadataMap));
+		}
+
+		private static EntrypointMetadata readMetadata(JsonReader reader) throws IOException {
+			if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+				return new Metadata("default", JsonReaderHelper.readString(reader));
+			}
+
+			String adapter = "default";
+			String value = null;
+
+			reader.beginObject();
+			while (reader.hasNext()) {
+				switch (reader.nextName()) {
+					case "adapter":
+						adapter = JsonReaderHelper.intern(JsonReaderHelper.readString(reader));
+						break;
+					case "value":
+						value = JsonReaderHelper.readString(reader);
+						break;
+					default:
+						reader.skipValue();
 				}
+			}
+			reader.endObject();
 
-				return ctr;
+			if (value == null) {
+				throw new JsonParseException("Missing mandatory key 'value' in entrypoint entry!");
 			}
+
+			return new Metadata(adapter, value);
 		}
 	}
 
@@ -485,28 +627,35 @@ public class ModMetadataV1 implements LoaderModMetadata {
 		private String config;
 		private Environment environment = Environment.UNIVERSAL;
 
-		public static class Deserializer implements JsonDeserializer<MixinEntry> {
-			@Override
-			public MixinEntry deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-				MixinEntry entry = new MixinEntry();
-				if (json.isJsonPrimitive()) {
-					entry.config = json.getAsString();
-				} else if (json.isJsonObject()) {
-					JsonObject obj = json.getAsJsonObject();
-					if (!obj.has("config")) {
-						throw new JsonParseException("Missing mandatory key 'config' in mixin entry!");
-					}
-
-					entry.config = obj.get("config").getAsString();
-					if (obj.has("environment")) {
-						entry.environment = context.deserialize(obj.get("environment"), Environment.class);
+		static MixinEntry read(JsonReader reader) throws IOException {
+			MixinEntry entry = new MixinEntry();
+
+			if (JsonReaderHelper.isPrimitive(reader.peek())) {
+				entry.config = reader.nextString();
+			} else if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+				reader.beginObject();
+				while (reader.hasNext()) {
+					switch (reader.nextName()) {
+						case "config":
+							entry.config = JsonReaderHelper.readString(reader);
+							break;
+						case "environment":
+							entry.environment = Environment.read(reader);
+							break;
+						default:
+							reader.skipValue();
 					}
-				} else {
-					throw new JsonParseException("Invalid type for mixin entry!");
 				}
+				reader.endObject();
 
-				return entry;
+				if (entry.config == null) {
+					throw new JsonParseException("Missing mandatory key 'config' in mixin entry!");
+				}
+			} else {
+				throw new JsonParseException("Invalid type for mixin entry!");
 			}
+
+			return entry;
 		}
 	}
 
@@ -528,41 +677,33 @@ public class ModMetadataV1 implements LoaderModMetadata {
 			}
 		}
 
-		public static class Deserializer implements JsonDeserializer<Environment> {
-			@Override
-			public Environment deserialize(JsonElement element, Type type, JsonDeserializationContext jsonDeserializationContext) throws JsonParseException {
-				String s = element.getAsString().toLowerCase(Locale.ROOT);
-				if (s.isEmpty() || s.equals("*")) {
-					return UNIVERSAL;
-				} else if (s.equals("client")) {
-					return CLIENT;
-				} else if (s.equals("server")) {
-					return SERVER;
-				} else {
-					throw new JsonParseException("Invalid environment type: " + s + "!");
-				}
+		static Environment read(JsonReader reader) throws IOException {
+			String s = JsonReaderHelper.readString(reader).toLowerCase(Locale.ROOT);
+			if (s.isEmpty() || s.equals("*")) {
+				return UNIVERSAL;
+			} else if (s.equals("client")) {
+				return CLIENT;
+			} else if (s.equals("server")) {
+				return SERVER;
+			} else {
+				throw new JsonParseException("Invalid environment type: " + s + "!");
 			}
 		}
 	}
 
 	public static class LicenseEntry {
-		private final List<String> entries = new ArrayList<>();
+		private static final LicenseEntry EMPTY = new LicenseEntry(Collections.emptyList());
 
-		public static class Deserializer implements JsonDeserializer<LicenseEntry> {
-			@Override
-			public LicenseEntry deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-				LicenseEntry entry = new LicenseEntry();
+		private final List<String> entries;
 
-				if (json.isJsonArray()) {
-					json.getAsJsonArray().forEach((e) -> entry.entries.add(e.getAsString()));
-				} else if (json.isJsonPrimitive()) {
-					entry.entries.add(json.getAsString());
-				} else {
-					throw new JsonParseException("License must be a string or array of strings!");
-				}
+		private LicenseEntry(List<String> entries) {
+			this.entries = entries;
+		}
 
-				return entry;
-			}
+		static LicenseEntry read(JsonReader reader) throws IOException {
+			List<String> entries = JsonReaderHelper.readStringOrArray(reader, "License must be a string or array of strings!");
+			entries.replaceAll(JsonReaderHelper::intern);
+			return new LicenseEntry(entries.size() == 1 ? Collections.singletonList(entries.get(0)) : entries);
 		}
 	}
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.metadata;
+
+import java.util.*;
+
+/**
+ * An immutable map backed by two arrays, for the handful of entries metadata maps
+ * usually hold. Lookups scan the keys linearly.
+ */
+final class SmallMap<V> extends AbstractMap<String, V> {
+	private final String[] keys;
+	private final Object[] values;
+
+	private SmallMap(String[] keys, Object[] values) {
+		this.keys = keys;
+		this.values = values;
+	}
+
+	static <V> Map<String, V> copyOf(Map<String, V> map) {
+		if (map.isEmpty()) {
+			return Collections.emptyMap();
+		}
+
+		String[] keys = new String[map.size()];
+		Object[] values = new Object[map.size()];
+		int i = 0;
+
+		for (Map.Entry<String, V> entry : map.entrySet()) {
+			keys[i] = JsonReaderHelper.intern(entry.getKey());
+			values[i] = entry.getValue();
+			i++;
+		}
+
+		return new SmallMap<>(keys, values);
+	}
+
+	private int indexOf(Object key) {
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i].equals(key)) {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	@Override
+	public int size() {
+		return keys.length;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return indexOf(key) >= 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public V get(Object key) {
+		int index = indexOf(key);
+		return index >= 0 ? (V) values[index] : null;
+	}
+
+	@Override
+	public Set<Entry<String, V>> entrySet() {
+		return new AbstractSet<Entry<String, V>>() {
+			@Override
+			public Iterator<Entry<String, V>> iterator() {
+				return new Iterator<Entry<String, V>>() {
+					private int index;
+
+					@Override
+					public boolean hasNext() {
+						return index < keys.length;
+					}
+
+					@SuppressWarnings("unchecked")
+					@Override
+					public Entry<String, V> next() {
+						if (index >= keys.length) {
+							throw new NoSuchElementException();
+						}
+
+						Entry<String, V> entry = new SimpleImmutableEntry<>(keys[index], (V) values[index]);
+						index++;
+						return entry;
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return keys.length;
+			}
+		};
+	}
+}
@@ -20,13 +20,17 @@ import net.fabricmc.loader.api.LanguageAdapter;
 import net.fabricmc.loader.api.LanguageAdapterException;
 import net.fabricmc.loader.api.ModContainer;
 import net.fabricmc.loader.launch.common.FabricLauncherBase;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+import java.lang.invoke.*;
 import java.lang.reflect.*;
 import java.util.ArrayList;
 import java.util.List;
 
 public final class DefaultLanguageAdapter implements LanguageAdapter {
 	public static final DefaultLanguageAdapter INSTANCE = new DefaultLanguageAdapter();
+	protected static Logger LOGGER = LogManager.getFormatterLogger("FabricLoader|LanguageAdapter");
 
 	private DefaultLanguageAdapter() {
 
@@ -113,6 +117,17 @@ public final class DefaultLanguageAdapter implements LanguageAdapter {
 			}
 
 			final Object targetObject = object;
+			Method samMethod = getFunctionalMethod(type);
+
+			if (samMethod != null && !isCompatible(samMethod, targetMethod)) {
+				// f.e. a void initializer listed under a key also resolved for an interface returning a value
+				throw new LanguageAdapterException("Method " + value + " does not match the signature of " + type.getName() + "." + samMethod.getName() + "!");
+			}
+
+			T lambda = createLambda(type, c, targetMethod, targetObject);
+			if (lambda != null) {
+				return lambda;
+			}
 
 			//noinspection unchecked
 			return (T) Proxy.newProxyInstance(FabricLauncherBase.getLauncher().getTargetClassLoader(), new Class[] { type }, new InvocationHandler() {
@@ -123,4 +138,128 @@ public final class DefaultLanguageAdapter implements LanguageAdapter {
 			});
 		}
 	}
+
+	/**
+	 * Bind a method reference to a functional interface using {@link LambdaMetafactory}, so that
+	 * calls dispatch directly to the target method without reflection or argument boxing.
+	 *
+	 * @return The bound instance, or null if the interface or method is not suitable;
+	 * the caller falls back to a reflective proxy in that case.
+	 */
+	/**
+	 * @return The single abstract method of a functional interface, or null if the type is not one.
+	 */
+	private static Method getFunctionalMethod(Class<?> type) {
+		Method samMethod = null;
+
+		for (Method m : type.getMethods()) {
+			if (!Modifier.isAbstract(m.getModifiers()) || isObjectMethod(m)) {
+				continue;
+			}
+
+			if (samMethod != null) {
+				return null; // not a functional interface
+			}
+
+			samMethod = m;
+		}
+
+		return samMethod;
+	}
+
+	/**
+	 * Whether a method reference to the target method could implement the interface method: the same number of
+	 * parameters, and a return value where the interface method expects one.
+	 */
+	private static boolean isCompatible(Method samMethod, Method targetMethod) {
+		if (samMethod.getParameterCount() != targetMethod.getParameterCount()) {
+			return false;
+		}
+
+		Class<?> samReturn = samMethod.getReturnType();
+		Class<?> targetReturn = targetMethod.getReturnType();
+
+		if (samReturn == void.class) {
+			return true;
+		} else if (targetReturn == void.class) {
+			return false;
+		} else {
+			return samReturn.isPrimitive() || targetReturn.isPrimitive() || samReturn.isAssignableFrom(targetReturn);
+		}
+	}
+
+	private static <T> T createLambda(Class<T> type, Class<?> owner, Method targetMethod, Object targetObject) {
+		Method samMethod = getFunctionalMethod(type);
+
+		if (samMethod == null || samMethod.getParameterCount() != targetMethod.getParameterCount()) {
+			return null;
+		}
+
+		try {
+			MethodHandles.Lookup lookup = getPrivateLookup(owner);
+			MethodHandle implMethod = lookup.unreflect(targetMethod);
+			boolean isStatic = targetObject == null;
+
+			MethodType samType = MethodType.methodType(samMethod.getReturnType(), samMethod.getParameterTypes());
+			Class<?>[] instantiatedParams = samMethod.getParameterTypes();
+			Class<?>[] targetParams = targetMethod.getParameterTypes();
+
+			for (int i = 0; i < instantiatedParams.length; i++) {
+				if (instantiatedParams[i].isAssignableFrom(targetParams[i])) {
+					instantiatedParams[i] = targetParams[i];
+				}
+			}
+
+			Class<?> instantiatedReturn = samMethod.getReturnType();
+			if (instantiatedReturn != void.class && instantiatedReturn.isAssignableFrom(targetMethod.getReturnType())) {
+				instantiatedReturn = targetMethod.getReturnType();
+			}
+
+			CallSite site = LambdaMetafactory.metafactory(
+				lookup,
+				samMethod.getName(),
+				isStatic ? MethodType.methodType(type) : MethodType.methodType(type, owner),
+				samType,
+				implMethod,
+				MethodType.methodType(instantiatedReturn, instantiatedParams)
+			);
+
+			//noinspection unchecked
+			return (T) (isStatic ? site.getTarget().invoke() : site.getTarget().invoke(targetObject));
+		} catch (ReflectiveOperationException | LambdaConversionException | RuntimeException e) {
+			LOGGER.debug("Could not create a lambda for %s, falling back to a proxy: %s", targetMethod, e);
+			return null;
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable t) {
+			// invoking the lambda factory declares Throwable, but doesn't throw checked exceptions
+			throw new RuntimeException(t);
+		}
+	}
+
+	private static boolean isObjectMethod(Method m) {
+		try {
+			Object.class.getMethod(m.getName(), m.getParameterTypes());
+			return true;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * LambdaMetafactory requires a lookup with private access to the target class, so that
+	 * the generated class is defined alongside it in the mod class loader.
+	 */
+	private static MethodHandles.Lookup getPrivateLookup(Class<?> owner) throws ReflectiveOperationException {
+		try {
+			// Java 9+
+			Method privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+			return (MethodHandles.Lookup) privateLookupIn.invoke(null, owner, MethodHandles.lookup());
+		} catch (NoSuchMethodException e) {
+			// Java 8
+			Constructor<MethodHandles.Lookup> constructor = MethodHandles.Lookup.class.getDeclaredConstructor(Class.class);
+			constructor.setAccessible(true);
+			return constructor.newInstance(owner);
+		}
+	}
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * A thread-safe table mapping equal keys to one shared instance, f.e. version strings to
+ * their parsed versions.
+ *
+ * Unlike {@link String#intern()}, the table belongs to the loader and can be cleared
+ * once startup no longer creates new instances.
+ */
+public final class Interner<K, V> {
+	private final Map<K, V> table = new ConcurrentHashMap<>();
+
+	/**
+	 * @return The instance shared by all callers for this key, created on first use.
+	 */
+	public V intern(K key, Function<K, V> factory) {
+		V existing = table.get(key);
+		if (existing != null) {
+			return existing;
+		}
+
+		V created = factory.apply(key);
+		existing = table.putIfAbsent(key, created);
+		return existing != null ? existing : created;
+	}
+
+	/**
+	 * Interns values which are their own keys.
+	 */
+	public static <T> T intern(Interner<T, T> interner, T value) {
+		return value != null ? interner.intern(value, UnaryOperator.identity()) : null;
+	}
+
+	public int size() {
+		return table.size();
+	}
+
+	public void clear() {
+		table.clear();
+	}
+}
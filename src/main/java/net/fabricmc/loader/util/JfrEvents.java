@@ -0,0 +1,171 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.util;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Emits startup events to Java Flight Recorder, if it is present in the running JVM.
+ *
+ * The loader targets Java 8, where jdk.jfr is not part of the platform API, so events
+ * are defined at runtime through jdk.jfr.EventFactory and driven reflectively.
+ */
+final class JfrEvents {
+	static final class Type {
+		private final Object factory;
+		private final Object eventType;
+
+		private Type(Object factory) throws ReflectiveOperationException {
+			this.factory = factory;
+			this.eventType = factory.getClass().getMethod("getEventType").invoke(factory);
+		}
+	}
+
+	static final boolean AVAILABLE;
+
+	static final Type PHASE;
+	static final Type CLASS_LOAD;
+
+	private static final Method IS_ENABLED;
+	private static final Method NEW_EVENT;
+	private static final Method BEGIN;
+	private static final Method END;
+	private static final Method SET;
+	private static final Method SHOULD_COMMIT;
+	private static final Method COMMIT;
+
+	static {
+		Type phase = null, classLoad = null;
+		Method isEnabled = null, newEvent = null, begin = null, end = null, set = null, shouldCommit = null, commit = null;
+		boolean available = false;
+
+		if (Boolean.parseBoolean(System.getProperty("fabric.loader.jfrEvents", "true"))) {
+			try {
+				phase = createType("okyanus.StartupPhase", "Startup Phase",
+					new String[] { "phase" }, new Class<?>[] { String.class });
+				classLoad = createType("okyanus.ClassLoad", "Class Load",
+					new String[] { "className", "readNanos", "entrypointPatchNanos", "fabricTransformNanos", "mixinNanos", "defineNanos" },
+					new Class<?>[] { String.class, long.class, long.class, long.class, long.class, long.class });
+
+				Class<?> factoryClass = Class.forName("jdk.jfr.EventFactory");
+				Class<?> eventClass = Class.forName("jdk.jfr.Event");
+				isEnabled = Class.forName("jdk.jfr.EventType").getMethod("isEnabled");
+				newEvent = factoryClass.getMethod("newEvent");
+				begin = eventClass.getMethod("begin");
+				end = eventClass.getMethod("end");
+				set = eventClass.getMethod("set", int.class, Object.class);
+				shouldCommit = eventClass.getMethod("shouldCommit");
+				commit = eventClass.getMethod("commit");
+				available = true;
+			} catch (Throwable t) {
+				// JFR is not present (f.e. older Java 8 builds) or not usable
+			}
+		}
+
+		AVAILABLE = available;
+		PHASE = phase;
+		CLASS_LOAD = classLoad;
+		IS_ENABLED = isEnabled;
+		NEW_EVENT = newEvent;
+		BEGIN = begin;
+		END = end;
+		SET = set;
+		SHOULD_COMMIT = shouldCommit;
+		COMMIT = commit;
+	}
+
+	private JfrEvents() {
+
+	}
+
+	private static Type createType(String name, String label, String[] fieldNames, Class<?>[] fieldTypes) throws ReflectiveOperationException {
+		Constructor<?> annotationElement = Class.forName("jdk.jfr.AnnotationElement").getConstructor(Class.class, Object.class);
+		Constructor<?> valueDescriptor = Class.forName("jdk.jfr.ValueDescriptor").getConstructor(Class.class, String.class);
+
+		List<Object> annotations = Arrays.asList(
+			annotationElement.newInstance(Class.forName("jdk.jfr.Name"), name),
+			annotationElement.newInstance(Class.forName("jdk.jfr.Label"), label),
+			annotationElement.newInstance(Class.forName("jdk.jfr.Category"), new String[] { "Okyanus", "Startup" })
+		);
+
+		List<Object> fields = new ArrayList<>();
+		for (int i = 0; i < fieldNames.length; i++) {
+			fields.add(valueDescriptor.newInstance(fieldTypes[i], fieldNames[i]));
+		}
+
+		return new Type(Class.forName("jdk.jfr.EventFactory").getMethod("create", List.class, List.class).invoke(null, annotations, fields));
+	}
+
+	/**
+	 * @return A new event on which begin() has been called, or null if JFR is not available or no
+	 * recording has the event type enabled.
+	 */
+	static Object begin(Type type) {
+		if (!AVAILABLE) {
+			return null;
+		}
+
+		try {
+			if (!(Boolean) IS_ENABLED.invoke(type.eventType)) {
+				return null;
+			}
+
+			Object event = NEW_EVENT.invoke(type.factory);
+			BEGIN.invoke(event);
+			return event;
+		} catch (ReflectiveOperationException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * End an event.
+	 *
+	 * @return Whether the event should be committed, see {@link #commit(Object, Object...)}.
+	 */
+	static boolean end(Object event) {
+		if (event == null) {
+			return false;
+		}
+
+		try {
+			END.invoke(event);
+			return (Boolean) SHOULD_COMMIT.invoke(event);
+		} catch (ReflectiveOperationException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Commit an ended event with the given field values, in declaration order.
+	 */
+	static void commit(Object event, Object... values) {
+		try {
+			for (int i = 0; i < values.length; i++) {
+				SET.invoke(event, i, values[i]);
+			}
+
+			COMMIT.invoke(event);
+		} catch (ReflectiveOperationException e) {
+			// ignore, the event is lost
+		}
+	}
+}
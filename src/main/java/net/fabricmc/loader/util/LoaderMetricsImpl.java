@@ -0,0 +1,241 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.util;
+
+import net.fabricmc.loader.api.LoaderMetrics;
+import net.fabricmc.loader.launch.common.ClassBytecodeCache;
+import net.fabricmc.loader.util.archive.ArchiveRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class LoaderMetricsImpl implements LoaderMetrics {
+	protected static Logger LOGGER = LogManager.getFormatterLogger("FabricLoader|Metrics");
+	private static final long[] HISTOGRAM_BOUNDS = { 10, 100, 1000, 10000, 100000 };
+
+	public static final LoaderMetricsImpl INSTANCE = new LoaderMetricsImpl();
+
+	private final LongAdder classesDefined = new LongAdder();
+	private final LongAdder negativeLookups = new LongAdder();
+	private final LongAdder bytesRead = new LongAdder();
+	private final LongAdder bytesTransformed = new LongAdder();
+	private final LongAdder mixinTransformed = new LongAdder();
+	private final LongAdder mixinBypassed = new LongAdder();
+	private final LongAdder classLoadNanos = new LongAdder();
+	private final LongAdder[] classLoadHistogram = new LongAdder[HISTOGRAM_BOUNDS.length + 1];
+	private final LongAdder mappingLookups = new LongAdder();
+	private final LongAdder mappingHits = new LongAdder();
+	private final LongAdder mixinRemapperHits = new LongAdder();
+	private final LongAdder mixinRemapperMisses = new LongAdder();
+	private volatile long modDiscoveryTime;
+	private volatile long modResolutionTime;
+	private boolean registered;
+
+	private LoaderMetricsImpl() {
+		for (int i = 0; i < classLoadHistogram.length; i++) {
+			classLoadHistogram[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Register the metrics as a platform MBean, unless disabled through "fabric.loader.jmx".
+	 */
+	public synchronized void register() {
+		if (registered || !Boolean.parseBoolean(System.getProperty("fabric.loader.jmx", "true"))) {
+			return;
+		}
+
+		registered = true;
+
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+
+			if (!server.isRegistered(name)) {
+				server.registerMBean(new StandardMBean(this, LoaderMetrics.class), name);
+			}
+		} catch (JMException | RuntimeException e) {
+			LOGGER.warn("Failed to register loader metrics MBean", e);
+		}
+	}
+
+	public void onClassDefined(long nanos) {
+		classesDefined.increment();
+		classLoadNanos.add(nanos);
+
+		long micros = nanos / 1000;
+		int bucket = 0;
+		while (bucket < HISTOGRAM_BOUNDS.length && micros > HISTOGRAM_BOUNDS[bucket]) {
+			bucket++;
+		}
+
+		classLoadHistogram[bucket].increment();
+	}
+
+	public void onNegativeLookup() {
+		negativeLookups.increment();
+	}
+
+	public void onBytesRead(int bytes) {
+		bytesRead.add(bytes);
+	}
+
+	public void onBytesTransformed(int bytes) {
+		bytesTransformed.add(bytes);
+	}
+
+	public void onMixinTransform(boolean changed) {
+		(changed ? mixinTransformed : mixinBypassed).increment();
+	}
+
+	public void onMappingLookup(boolean hit) {
+		mappingLookups.increment();
+		if (hit) {
+			mappingHits.increment();
+		}
+	}
+
+	public void onMixinRemapperLookup(boolean hit) {
+		(hit ? mixinRemapperHits : mixinRemapperMisses).increment();
+	}
+
+	public void setModDiscoveryTime(long millis) {
+		modDiscoveryTime = millis;
+	}
+
+	public void setModResolutionTime(long millis) {
+		modResolutionTime = millis;
+	}
+
+	@Override
+	public long getClassesDefined() {
+		return classesDefined.sum();
+	}
+
+	@Override
+	public long getNegativeLookups() {
+		return negativeLookups.sum();
+	}
+
+	@Override
+	public long getBytesRead() {
+		return bytesRead.sum();
+	}
+
+	@Override
+	public long getBytesTransformed() {
+		return bytesTransformed.sum();
+	}
+
+	@Override
+	public long getMixinTransformedClasses() {
+		return mixinTransformed.sum();
+	}
+
+	@Override
+	public long getMixinBypassedClasses() {
+		return mixinBypassed.sum();
+	}
+
+	@Override
+	public long getClassLoadTimeNanos() {
+		return classLoadNanos.sum();
+	}
+
+	@Override
+	public long[] getClassLoadTimeHistogramBounds() {
+		return HISTOGRAM_BOUNDS.clone();
+	}
+
+	@Override
+	public long[] getClassLoadTimeHistogram() {
+		long[] histogram = new long[classLoadHistogram.length];
+		for (int i = 0; i < histogram.length; i++) {
+			histogram[i] = classLoadHistogram[i].sum();
+		}
+
+		return histogram;
+	}
+
+	@Override
+	public long getMappingLookups() {
+		return mappingLookups.sum();
+	}
+
+	@Override
+	public long getMappingHits() {
+		return mappingHits.sum();
+	}
+
+	@Override
+	public long getMixinRemapperCacheHits() {
+		return mixinRemapperHits.sum();
+	}
+
+	@Override
+	public long getMixinRemapperCacheMisses() {
+		return mixinRemapperMisses.sum();
+	}
+
+	@Override
+	public double getMixinRemapperCacheHitRate() {
+		long hits = getMixinRemapperCacheHits();
+		long total = hits + getMixinRemapperCacheMisses();
+		return total == 0 ? 0 : (double) hits / total;
+	}
+
+	@Override
+	public long getBytecodeCacheHits() {
+		return ClassBytecodeCache.INSTANCE.getHits();
+	}
+
+	@Override
+	public long getBytecodeCacheMisses() {
+		return ClassBytecodeCache.INSTANCE.getMisses();
+	}
+
+	@Override
+	public long getModDiscoveryTimeMillis() {
+		return modDiscoveryTime;
+	}
+
+	@Override
+	public long getModResolutionTimeMillis() {
+		return modResolutionTime;
+	}
+
+	@Override
+	public int getOpenArchives() {
+		return ArchiveRegistry.getOpenArchives();
+	}
+
+	@Override
+	public long getOpenArchiveHandles() {
+		return ArchiveRegistry.getOpenHandles();
+	}
+
+	@Override
+	public long getArchiveDirectoryBytes() {
+		return ArchiveRegistry.getDirectoryBytes();
+	}
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.util;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import net.fabricmc.loader.ModContainer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Attributes startup wall time and allocations to mods.
+ *
+ * Enabled with -Dfabric.loader.profileMods=true. Sections are inclusive: f.e. a class
+ * loaded while a mod initializer runs is counted both towards the class's mod and
+ * towards the initializer.
+ */
+public final class ModProfiler {
+	public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("fabric.loader.profileMods", "false"));
+	public static final String UNATTRIBUTED = "<unattributed>";
+
+	protected static Logger LOGGER = LogManager.getFormatterLogger("FabricLoader|Profiler");
+	private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+	private static final boolean ALLOCATIONS_SUPPORTED = isAllocationTrackingSupported();
+
+	public enum Category {
+		ENTRYPOINT_CREATE("entrypointCreate"),
+		ENTRYPOINT_INVOKE("entrypointInvoke"),
+		ASYNC_INIT("asyncInit"),
+		CLASS_LOAD("classLoad"),
+		MIXIN_TRANSFORM("mixinTransform");
+
+		private final String key;
+
+		Category(String key) {
+			this.key = key;
+		}
+	}
+
+	public static final class Section {
+		private final long startNanos;
+		private final long startBytes;
+
+		private Section(long startNanos, long startBytes) {
+			this.startNanos = startNanos;
+			this.startBytes = startBytes;
+		}
+	}
+
+	private static final class ModStats {
+		private final LongAdder[] counts = new LongAdder[Category.values().length];
+		private final LongAdder[] nanos = new LongAdder[Category.values().length];
+		private final LongAdder[] bytes = new LongAdder[Category.values().length];
+
+		private ModStats() {
+			for (int i = 0; i < counts.length; i++) {
+				counts[i] = new LongAdder();
+				nanos[i] = new LongAdder();
+				bytes[i] = new LongAdder();
+			}
+		}
+
+		private long getTotalNanos() {
+			long total = 0;
+			for (LongAdder adder : nanos) {
+				total += adder.sum();
+			}
+			return total;
+		}
+	}
+
+	private static final Map<String, ModStats> stats = new ConcurrentHashMap<>();
+	private static volatile Map<String, String> modsByOrigin = Collections.emptyMap();
+
+	private ModProfiler() {
+
+	}
+
+	private static boolean isAllocationTrackingSupported() {
+		try {
+			return THREAD_BEAN instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean) THREAD_BEAN).isThreadAllocatedMemorySupported();
+		} catch (Throwable t) {
+			return false;
+		}
+	}
+
+	private static long getAllocatedBytes() {
+		if (!ALLOCATIONS_SUPPORTED) {
+			return 0;
+		}
+
+		return ((com.sun.management.ThreadMXBean) THREAD_BEAN).getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	/**
+	 * Register the loaded mods, so that classes can be attributed by their code source.
+	 */
+	public static void registerMods(Collection<ModContainer> mods) {
+		Map<String, String> map = new HashMap<>();
+		for (ModContainer mod : mods) {
+			map.put(mod.getOriginUrl().toString(), mod.getMetadata().getId());
+		}
+
+		modsByOrigin = map;
+	}
+
+	/**
+	 * @return The ID of the mod loaded from the given code source, or {@link #UNATTRIBUTED}.
+	 */
+	public static String getModId(URL codeSource) {
+		if (codeSource == null) {
+			return UNATTRIBUTED;
+		}
+
+		return modsByOrigin.getOrDefault(codeSource.toString(), UNATTRIBUTED);
+	}
+
+	/**
+	 * @return A new section, or null if profiling is disabled.
+	 */
+	public static Section begin() {
+		if (!ENABLED) {
+			return null;
+		}
+
+		return new Section(System.nanoTime(), getAllocatedBytes());
+	}
+
+	public static void end(Section section, String modId, Category category) {
+		if (section == null) {
+			return;
+		}
+
+		record(modId, category, System.nanoTime() - section.startNanos, getAllocatedBytes() - section.startBytes);
+	}
+
+	/**
+	 * End a section and split its cost evenly between several mods.
+	 */
+	public static void end(Section section, Collection<String> modIds, Category category) {
+		if (section == null || modIds.isEmpty()) {
+			return;
+		}
+
+		long nanos = (System.nanoTime() - section.startNanos) / modIds.size();
+		long bytes = (getAllocatedBytes() - section.startBytes) / modIds.size();
+
+		for (String modId : modIds) {
+			record(modId, category, nanos, bytes);
+		}
+	}
+
+	/**
+	 * Record a duration without allocation data, f.e. for work spanning several threads.
+	 */
+	public static void recordDuration(String modId, Category category, long nanos) {
+		if (ENABLED) {
+			record(modId, category, nanos, 0);
+		}
+	}
+
+	private static void record(String modId, Category category, long nanos, long bytes) {
+		ModStats modStats = stats.computeIfAbsent(modId, (id) -> new ModStats());
+		int i = category.ordinal();
+
+		modStats.counts[i].increment();
+		modStats.nanos[i].add(nanos);
+		modStats.bytes[i].add(bytes);
+	}
+
+	/**
+	 * Log a summary table and write the full report to the game directory.
+	 */
+	public static void writeReport(File gameDir) {
+		if (!ENABLED) {
+			return;
+		}
+
+		List<Map.Entry<String, ModStats>> entries = new ArrayList<>(stats.entrySet());
+		entries.sort(Comparator.comparingLong((Map.Entry<String, ModStats> e) -> e.getValue().getTotalNanos()).reversed());
+
+		JsonArray modsJson = new JsonArray();
+		StringBuilder table = new StringBuilder(String.format("%-32s %10s", "Mod", "Total ms"));
+		for (Category category : Category.values()) {
+			table.append(String.format(" %18s", category.key + " ms"));
+		}
+
+		for (Map.Entry<String, ModStats> entry : entries) {
+			ModStats modStats = entry.getValue();
+			JsonObject modJson = new JsonObject();
+			JsonObject categoriesJson = new JsonObject();
+
+			modJson.addProperty("id", entry.getKey());
+			modJson.addProperty("totalNanos", modStats.getTotalNanos());
+			table.append(String.format("%n%-32s %10d", entry.getKey(), modStats.getTotalNanos() / 1000000));
+
+			for (Category category : Category.values()) {
+				int i = category.ordinal();
+				JsonObject categoryJson = new JsonObject();
+				categoryJson.addProperty("count", modStats.counts[i].sum());
+				categoryJson.addProperty("nanos", modStats.nanos[i].sum());
+				categoryJson.addProperty("allocatedBytes", modStats.bytes[i].sum());
+				categoriesJson.add(category.key, categoryJson);
+
+				table.append(String.format(" %18d", modStats.nanos[i].sum() / 1000000));
+			}
+
+			modJson.add("categories", categoriesJson);
+			modsJson.add(modJson);
+		}
+
+		JsonObject report = new JsonObject();
+		report.addProperty("allocationsTracked", ALLOCATIONS_SUPPORTED);
+		report.add("mods", modsJson);
+
+		LOGGER.info("Mod startup profile:%n%s", table);
+
+		File reportFile = new File(gameDir, "okyanus-profile.json");
+		Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+		try (Writer writer = Files.newBufferedWriter(reportFile.toPath(), StandardCharsets.UTF_8)) {
+			gson.toJson(report, writer);
+			LOGGER.info("Wrote mod startup profile to %s", reportFile.getAbsolutePath());
+		} catch (IOException e) {
+			LOGGER.warn("Failed to write mod startup profile to " + reportFile.getAbsolutePath(), e);
+		}
+	}
+}
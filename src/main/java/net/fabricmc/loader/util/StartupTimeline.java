@@ -0,0 +1,264 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the start, end and thread of each loader startup phase, as well as the
+ * per-stage cost of every class defined by Knot.
+ *
+ * Phases are logged at debug level as they complete and emitted as "okyanus.StartupPhase"
+ * JFR events; class loads are emitted as "okyanus.ClassLoad" events. {@link #logSummary()}
+ * logs the recorded phases, the class loading totals and the slowest classes seen so far.
+ * Class load times are inclusive of nested loads, f.e. of a superclass during definition.
+ */
+public final class StartupTimeline {
+	protected static Logger LOGGER = LogManager.getFormatterLogger("FabricLoader|Timeline");
+
+	private static final int MAX_PHASES = 256;
+	private static final int SLOW_CLASS_COUNT = Integer.getInteger("fabric.loader.timeline.slowClasses", 20);
+
+	private static final long ORIGIN = System.nanoTime();
+	private static final List<Phase> phases = new ArrayList<>();
+
+	private static final ThreadLocal<ClassLoad> currentClassLoad = new ThreadLocal<>();
+	private static final LongAdder classCount = new LongAdder();
+	private static final LongAdder[] stageNanos = new LongAdder[ClassStage.values().length];
+	private static final PriorityQueue<ClassLoad> slowestClasses = new PriorityQueue<>(Comparator.comparingLong((ClassLoad c) -> c.totalNanos));
+	private static volatile long slowClassThreshold;
+
+	static {
+		for (int i = 0; i < stageNanos.length; i++) {
+			stageNanos[i] = new LongAdder();
+		}
+	}
+
+	public enum ClassStage {
+		READ("read"),
+		ENTRYPOINT_PATCH("entrypoint patch"),
+		FABRIC_TRANSFORM("fabric transform"),
+		MIXIN("mixin"),
+		DEFINE("define");
+
+		private final String label;
+
+		ClassStage(String label) {
+			this.label = label;
+		}
+	}
+
+	public static final class Phase implements AutoCloseable {
+		private final String name;
+		private final String thread;
+		private final long startNanos;
+		private final Object event;
+		private long endNanos = -1;
+
+		private Phase(String name) {
+			this.name = name;
+			this.thread = Thread.currentThread().getName();
+			this.event = JfrEvents.begin(JfrEvents.PHASE);
+			this.startNanos = System.nanoTime();
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public String getThread() {
+			return thread;
+		}
+
+		/**
+		 * @return The start time, in nanoseconds since the loader was initialized.
+		 */
+		public long getStartNanos() {
+			return startNanos - ORIGIN;
+		}
+
+		/**
+		 * @return The end time, in nanoseconds since the loader was initialized, or -1 if the phase is running.
+		 */
+		public long getEndNanos() {
+			return endNanos < 0 ? -1 : endNanos - ORIGIN;
+		}
+
+		@Override
+		public void close() {
+			if (endNanos >= 0) {
+				return;
+			}
+
+			endNanos = System.nanoTime();
+			if (JfrEvents.end(event)) {
+				JfrEvents.commit(event, name);
+			}
+
+			synchronized (phases) {
+				if (phases.size() == MAX_PHASES) {
+					phases.remove(0);
+				}
+
+				phases.add(this);
+			}
+
+			LOGGER.debug("Phase %s took %.2f ms on thread %s", name, (endNanos - startNanos) / 1e6, thread);
+		}
+	}
+
+	public static final class ClassLoad {
+		private final String name;
+		// cleared once the load ends, so that retained records don't keep others alive
+		private ClassLoad parent;
+		private Object event;
+		private final long startNanos;
+		private final long[] stages = new long[ClassStage.values().length];
+		private long mark;
+		private long totalNanos;
+
+		private ClassLoad(String name, ClassLoad parent) {
+			this.name = name;
+			this.parent = parent;
+			this.event = JfrEvents.begin(JfrEvents.CLASS_LOAD);
+			this.startNanos = this.mark = System.nanoTime();
+		}
+
+		/**
+		 * Attribute the time since the previous mark to a stage.
+		 */
+		public void mark(ClassStage stage) {
+			long now = System.nanoTime();
+			stages[stage.ordinal()] += now - mark;
+			mark = now;
+		}
+
+		/**
+		 * Finish the class load; only defined classes are recorded.
+		 *
+		 * @return The time since the class load began, in nanoseconds.
+		 */
+		public long end(boolean defined) {
+			currentClassLoad.set(parent);
+			parent = null;
+			totalNanos = System.nanoTime() - startNanos;
+
+			if (!defined) {
+				return totalNanos;
+			}
+
+			classCount.increment();
+
+			for (ClassStage stage : ClassStage.values()) {
+				stageNanos[stage.ordinal()].add(stages[stage.ordinal()]);
+			}
+
+			if (JfrEvents.end(event)) {
+				JfrEvents.commit(event, name, stages[0], stages[1], stages[2], stages[3], stages[4]);
+			}
+
+			event = null;
+
+			if (totalNanos > slowClassThreshold) {
+				synchronized (slowestClasses) {
+					slowestClasses.add(this);
+
+					if (slowestClasses.size() > SLOW_CLASS_COUNT) {
+						slowestClasses.poll();
+						slowClassThreshold = slowestClasses.peek().totalNanos;
+					}
+				}
+			}
+
+			return totalNanos;
+		}
+	}
+
+	private StartupTimeline() {
+
+	}
+
+	/**
+	 * Start a phase, which should be closed on the same thread once it completes.
+	 */
+	public static Phase begin(String name) {
+		return new Phase(name);
+	}
+
+	/**
+	 * Start timing a class load on the current thread; the returned record is
+	 * available through {@link #getCurrentClassLoad()} until it is ended.
+	 */
+	public static ClassLoad beginClassLoad(String name) {
+		ClassLoad classLoad = new ClassLoad(name, currentClassLoad.get());
+		currentClassLoad.set(classLoad);
+		return classLoad;
+	}
+
+	/**
+	 * @return The class load in progress on the current thread, or null.
+	 */
+	public static ClassLoad getCurrentClassLoad() {
+		return currentClassLoad.get();
+	}
+
+	/**
+	 * @return A snapshot of the completed phases, in completion order.
+	 */
+	public static List<Phase> getPhases() {
+		synchronized (phases) {
+			return new ArrayList<>(phases);
+		}
+	}
+
+	public static void logSummary() {
+		StringBuilder builder = new StringBuilder(String.format("%-32s %10s %10s  %s", "Phase", "Start ms", "Time ms", "Thread"));
+
+		for (Phase phase : getPhases()) {
+			builder.append(String.format("%n%-32s %10.2f %10.2f  %s", phase.name, phase.getStartNanos() / 1e6, (phase.endNanos - phase.startNanos) / 1e6, phase.thread));
+		}
+
+		builder.append(String.format("%n%nDefined %d classes:", classCount.sum()));
+		for (ClassStage stage : ClassStage.values()) {
+			builder.append(String.format(" %s %.2f ms,", stage.label, stageNanos[stage.ordinal()].sum() / 1e6));
+		}
+		builder.setLength(builder.length() - 1);
+
+		List<ClassLoad> slowest;
+		synchronized (slowestClasses) {
+			slowest = new ArrayList<>(slowestClasses);
+		}
+
+		if (!slowest.isEmpty()) {
+			slowest.sort(Comparator.comparingLong((ClassLoad c) -> c.totalNanos).reversed());
+			builder.append(String.format("%nSlowest classes:"));
+
+			for (ClassLoad classLoad : slowest) {
+				builder.append(String.format("%n  %-80s %8.2f ms", classLoad.name, classLoad.totalNanos / 1e6));
+			}
+		}
+
+		LOGGER.info("Startup timeline:%n%s", builder);
+	}
+}
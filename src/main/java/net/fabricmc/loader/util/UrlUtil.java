@@ -18,8 +18,11 @@ package net.fabricmc.loader.util;
 
 import java.io.File;
 import java.net.*;
+import java.nio.file.FileSystemNotFoundException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.spi.FileSystemProvider;
+import java.util.ServiceLoader;
 
 public final class UrlUtil {
 	private UrlUtil() {
@@ -62,13 +65,36 @@ public final class UrlUtil {
 			return asFile(url).toPath();
 		} else {
 			try {
-				return Paths.get(url.toURI());
+				URI uri = url.toURI();
+
+				try {
+					return Paths.get(uri);
+				} catch (FileSystemNotFoundException e) {
+					// The provider may live in a class loader the system does not search for providers,
+					// such as jimfs when the server launcher injects its libraries.
+					FileSystemProvider provider = findProvider(uri.getScheme(), UrlUtil.class.getClassLoader());
+					if (provider == null) {
+						throw e;
+					}
+
+					return provider.getPath(uri);
+				}
 			} catch (URISyntaxException e) {
 				throw new UrlConversionException(e);
 			}
 		}
 	}
 
+	public static FileSystemProvider findProvider(String scheme, ClassLoader loader) {
+		for (FileSystemProvider provider : ServiceLoader.load(FileSystemProvider.class, loader)) {
+			if (provider.getScheme().equalsIgnoreCase(scheme)) {
+				return provider;
+			}
+		}
+
+		return null;
+	}
+
 	public static URL asUrl(File file) throws UrlConversionException {
 		try {
 			return file.toURI().toURL();
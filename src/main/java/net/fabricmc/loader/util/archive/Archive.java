@@ -0,0 +1,462 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.util.archive;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.Manifest;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * An open ZIP/JAR archive with its central directory parsed once, obtained from the {@link ArchiveRegistry}.
+ *
+ * Entries are read with positional I/O on a single channel, so any number of threads can read concurrently
+ * without sharing a file position or a lock.
+ */
+public final class Archive {
+	private static final int LOCAL_HEADER = 0x04034b50;
+	private static final int CENTRAL_HEADER = 0x02014b50;
+	private static final int END_HEADER = 0x06054b50;
+	private static final int ZIP64_END_HEADER = 0x06064b50;
+	private static final int ZIP64_LOCATOR = 0x07064b50;
+	private static final int STORED = 0;
+	private static final int DEFLATED = 8;
+	private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+	// estimated retained size of an entry besides its name: Entry, map node and table slot, String
+	private static final int ENTRY_OVERHEAD = 120;
+	private static final Object NO_MANIFEST = new Object();
+
+	public static final class Entry {
+		private final String name;
+		private final int method;
+		private final long compressedSize;
+		private final long size;
+		private final long headerOffset;
+		private volatile long dataOffset = -1;
+
+		private Entry(String name, int method, long compressedSize, long size, long headerOffset) {
+			this.name = name;
+			this.method = method;
+			this.compressedSize = compressedSize;
+			this.size = size;
+			this.headerOffset = headerOffset;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return The uncompressed size, in bytes.
+		 */
+		public long getSize() {
+			return size;
+		}
+
+		public boolean isDirectory() {
+			return name.endsWith("/");
+		}
+	}
+
+	final String key;
+	private final Path path;
+	// replaced if an interrupted reader closes it, see readFully
+	private volatile FileChannel channel;
+	private volatile boolean closed;
+	private final Map<String, Entry> entries;
+	private final long directoryBytes;
+	private volatile Object manifest;
+	// entry names in sorted order for prefix queries, built on first use
+	private volatile String[] sortedNames;
+	private volatile Boolean signed;
+	// only modified by the registry
+	volatile int references;
+
+	private Archive(String key, Path path, FileChannel channel, Map<String, Entry> entries, long directoryBytes) {
+		this.key = key;
+		this.path = path;
+		this.channel = channel;
+		this.entries = entries;
+		this.directoryBytes = directoryBytes;
+	}
+
+	static Archive open(String key, Path path) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+
+		try {
+			Map<String, Entry> entries = readCentralDirectory(channel);
+			long directoryBytes = 0;
+
+			for (String name : entries.keySet()) {
+				directoryBytes += ENTRY_OVERHEAD + name.length();
+			}
+
+			return new Archive(key, path, channel, Collections.unmodifiableMap(entries), directoryBytes);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	public Path getPath() {
+		return path;
+	}
+
+	/**
+	 * @return The entry with the given name (f.e. "net/fabricmc/Foo.class" or "assets/"), or null if there is none.
+	 */
+	public Entry getEntry(String name) {
+		return entries.get(name);
+	}
+
+	public Collection<Entry> getEntries() {
+		return entries.values();
+	}
+
+	/**
+	 * @return The entries whose names start with the given prefix (f.e. "assets/modid/"), in name order.
+	 */
+	public List<Entry> getEntries(String prefix) {
+		String[] names = sortedNames;
+
+		if (names == null) {
+			names = entries.keySet().toArray(new String[0]);
+			Arrays.sort(names);
+			sortedNames = names;
+		}
+
+		int start = Arrays.binarySearch(names, prefix);
+		if (start < 0) {
+			start = -start - 1;
+		}
+
+		List<Entry> ret = new ArrayList<>();
+
+		for (int i = start; i < names.length && names[i].startsWith(prefix); i++) {
+			ret.add(entries.get(names[i]));
+		}
+
+		return ret;
+	}
+
+	/**
+	 * @return The estimated memory retained by the parsed central directory, in bytes.
+	 */
+	public long getDirectoryBytes() {
+		return directoryBytes;
+	}
+
+	/**
+	 * @return The contents of the entry with the given name, or null if there is none.
+	 */
+	public byte[] read(String name) throws IOException {
+		Entry entry = entries.get(name);
+		return entry != null ? read(entry) : null;
+	}
+
+	/**
+	 * @return A stream over the contents of the entry with the given name, or null if there is none.
+	 */
+	public InputStream getInputStream(String name) throws IOException {
+		byte[] data = read(name);
+		return data != null ? new ByteArrayInputStream(data) : null;
+	}
+
+	public byte[] read(Entry entry) throws IOException {
+		long dataOffset = entry.dataOffset;
+
+		if (dataOffset < 0) {
+			ByteBuffer header = readFully(entry.headerOffset, 30, 0);
+			if (header.getInt(0) != LOCAL_HEADER) {
+				throw new ZipException("Invalid local header for " + entry.name + " in " + path);
+			}
+
+			dataOffset = entry.headerOffset + 30 + (header.getShort(26) & 0xFFFF) + (header.getShort(28) & 0xFFFF);
+			entry.dataOffset = dataOffset;
+		}
+
+		if (entry.size > Integer.MAX_VALUE - 8 || entry.compressedSize > Integer.MAX_VALUE - 8) {
+			throw new ZipException("Entry " + entry.name + " in " + path + " is too large!");
+		}
+
+		switch (entry.method) {
+			case STORED:
+				return readFully(dataOffset, (int) entry.compressedSize, 0).array();
+			case DEFLATED: {
+				// raw inflation may need an extra dummy byte of input
+				byte[] input = readFully(dataOffset, (int) entry.compressedSize, 1).array();
+				byte[] output = new byte[(int) entry.size];
+				Inflater inflater = new Inflater(true);
+
+				try {
+					inflater.setInput(input);
+					int length = 0;
+
+					while (length < output.length) {
+						int read = inflater.inflate(output, length, output.length - length);
+						if (read == 0 && (inflater.finished() || inflater.needsDictionary() || inflater.needsInput())) {
+							break;
+						}
+
+						length += read;
+					}
+
+					if (length != output.length) {
+						throw new ZipException("Truncated entry " + entry.name + " in " + path);
+					}
+
+					return output;
+				} catch (DataFormatException e) {
+					throw new ZipException("Invalid compressed data for " + entry.name + " in " + path + ": " + e.getMessage());
+				} finally {
+					inflater.end();
+				}
+			}
+			default:
+				throw new ZipException("Unsupported compression method " + entry.method + " for " + entry.name + " in " + path);
+		}
+	}
+
+	/**
+	 * @return The parsed "META-INF/MANIFEST.MF", or null if there is none.
+	 */
+	public Manifest getManifest() throws IOException {
+		Object manifest = this.manifest;
+
+		if (manifest == null) {
+			byte[] data = read("META-INF/MANIFEST.MF");
+			this.manifest = manifest = data != null ? new Manifest(new ByteArrayInputStream(data)) : NO_MANIFEST;
+		}
+
+		return manifest != NO_MANIFEST ? (Manifest) manifest : null;
+	}
+
+	/**
+	 * @return Whether the archive carries JAR signature files, which this class does not verify.
+	 */
+	public boolean isSigned() {
+		Boolean signed = this.signed;
+
+		if (signed == null) {
+			signed = false;
+
+			for (Entry entry : getEntries("META-INF/")) {
+				if (entry.name.endsWith(".SF") && entry.name.indexOf('/', 9) < 0) {
+					signed = true;
+					break;
+				}
+			}
+
+			this.signed = signed;
+		}
+
+		return signed;
+	}
+
+	/**
+	 * Release this handle. The archive is closed once all of its handles have been released,
+	 * and must not be used through this handle afterwards.
+	 */
+	public void release() {
+		ArchiveRegistry.release(this);
+	}
+
+	void close() throws IOException {
+		closed = true;
+		channel.close();
+	}
+
+	private ByteBuffer readFully(long position, int length, int padding) throws IOException {
+		FileChannel channel = this.channel;
+
+		try {
+			return readFully(channel, position, length, padding);
+		} catch (ClosedChannelException e) {
+			// an interrupt during any read closes the shared channel, reopen it instead of failing for good
+			if (closed) {
+				throw e;
+			}
+
+			channel = reopen(channel);
+		}
+
+		// keep the retry from being closed by this thread's own pending interrupt, and restore it afterwards
+		boolean interrupted = Thread.interrupted();
+
+		try {
+			return readFully(channel, position, length, padding);
+		} finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private synchronized FileChannel reopen(FileChannel failed) throws IOException {
+		FileChannel channel = this.channel;
+
+		if (channel == failed && !closed) {
+			this.channel = channel = FileChannel.open(path, StandardOpenOption.READ);
+			failed.close();
+		}
+
+		return channel;
+	}
+
+	private static ByteBuffer readFully(FileChannel channel, long position, int length, int padding) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length + padding);
+		buffer.limit(length);
+
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				throw new EOFException();
+			}
+		}
+
+		buffer.clear();
+		return buffer.order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	private static Map<String, Entry> readCentralDirectory(FileChannel channel) throws IOException {
+		long fileSize = channel.size();
+		int tailSize = (int) Math.min(fileSize, 22 + 0xFFFF);
+		ByteBuffer tail = readFully(channel, fileSize - tailSize, tailSize, 0);
+
+		int end = -1;
+		for (int i = tailSize - 22; i >= 0; i--) {
+			if (tail.getInt(i) == END_HEADER) {
+				end = i;
+				break;
+			}
+		}
+
+		if (end < 0) {
+			throw new ZipException("Not a ZIP archive: no end of central directory record");
+		}
+
+		long count = tail.getShort(end + 10) & 0xFFFF;
+		long directorySize = tail.getInt(end + 12) & ZIP64_MAGIC;
+		long directoryOffset = tail.getInt(end + 16) & ZIP64_MAGIC;
+		// the central directory ends where the (ZIP64) end of central directory record starts
+		long directoryEnd = fileSize - tailSize + end;
+
+		if ((count == 0xFFFF || directorySize == ZIP64_MAGIC || directoryOffset == ZIP64_MAGIC) && end >= 20 && tail.getInt(end - 20) == ZIP64_LOCATOR) {
+			long zip64EndPos = tail.getLong(end - 20 + 8);
+			ByteBuffer zip64End = zip64EndPos >= 0 && zip64EndPos <= directoryEnd - 20 - 56 ? readFully(channel, zip64EndPos, 56, 0) : null;
+
+			if (zip64End == null || zip64End.getInt(0) != ZIP64_END_HEADER) {
+				// the recorded position doesn't account for a preamble, but the record normally precedes its locator
+				zip64EndPos = directoryEnd - 20 - 56;
+				zip64End = zip64EndPos >= 0 ? readFully(channel, zip64EndPos, 56, 0) : null;
+
+				if (zip64End == null || zip64End.getInt(0) != ZIP64_END_HEADER) {
+					throw new ZipException("Invalid ZIP64 end of central directory record");
+				}
+			}
+
+			count = zip64End.getLong(32);
+			directorySize = zip64End.getLong(40);
+			directoryOffset = zip64End.getLong(48);
+			directoryEnd = zip64EndPos;
+		}
+
+		// Offsets are relative to the start of the archive, which is preceded by a preamble in f.e.
+		// self-extracting archives, so shift them by the space in front of the central directory.
+		long preamble = directoryEnd - directorySize - directoryOffset;
+
+		if (directorySize > Integer.MAX_VALUE || directoryOffset < 0 || preamble < 0) {
+			throw new ZipException("Invalid central directory size or offset");
+		}
+
+		directoryOffset += preamble;
+
+		ByteBuffer directory = readFully(channel, directoryOffset, (int) directorySize, 0);
+		byte[] bytes = directory.array();
+		Map<String, Entry> entries = new HashMap<>((int) Math.min(count, 1 << 20) * 4 / 3 + 1);
+		int pos = 0;
+
+		while (pos + 46 <= directorySize) {
+			if (directory.getInt(pos) != CENTRAL_HEADER) {
+				throw new ZipException("Invalid central directory header");
+			}
+
+			int method = directory.getShort(pos + 10) & 0xFFFF;
+			long compressedSize = directory.getInt(pos + 20) & ZIP64_MAGIC;
+			long size = directory.getInt(pos + 24) & ZIP64_MAGIC;
+			int nameLength = directory.getShort(pos + 28) & 0xFFFF;
+			int extraLength = directory.getShort(pos + 30) & 0xFFFF;
+			int commentLength = directory.getShort(pos + 32) & 0xFFFF;
+			long headerOffset = directory.getInt(pos + 42) & ZIP64_MAGIC;
+			String name = new String(bytes, pos + 46, nameLength, StandardCharsets.UTF_8);
+
+			if (size == ZIP64_MAGIC || compressedSize == ZIP64_MAGIC || headerOffset == ZIP64_MAGIC) {
+				// the ZIP64 extra field holds the overflowing values, in this order
+				int extra = pos + 46 + nameLength;
+				int extraEnd = extra + extraLength;
+
+				while (extra + 4 <= extraEnd) {
+					int id = directory.getShort(extra) & 0xFFFF;
+					int length = directory.getShort(extra + 2) & 0xFFFF;
+
+					if (id == 0x0001) {
+						int field = extra + 4;
+						if (size == ZIP64_MAGIC) {
+							size = directory.getLong(field);
+							field += 8;
+						}
+
+						if (compressedSize == ZIP64_MAGIC) {
+							compressedSize = directory.getLong(field);
+							field += 8;
+						}
+
+						if (headerOffset == ZIP64_MAGIC) {
+							headerOffset = directory.getLong(field);
+						}
+
+						break;
+					}
+
+					extra += 4 + length;
+				}
+			}
+
+			entries.putIfAbsent(name, new Entry(name, method, compressedSize, size, headerOffset + preamble));
+			pos += 46 + nameLength + extraLength + commentLength;
+		}
+
+		return entries;
+	}
+}
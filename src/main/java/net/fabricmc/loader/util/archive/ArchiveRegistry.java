@@ -0,0 +1,109 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.util.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reference-counted registry of open archives, so that discovery, class loading and mod containers share
+ * one channel and one parsed central directory per JAR instead of each opening their own.
+ */
+public final class ArchiveRegistry {
+	private static final Map<String, Archive> archives = new ConcurrentHashMap<>();
+
+	private ArchiveRegistry() {
+
+	}
+
+	/**
+	 * Open an archive, or get another handle to it if it is already open.
+	 * Every handle has to be {@link Archive#release() released} once it is no longer used.
+	 */
+	public static Archive acquire(Path path) throws IOException {
+		Path absolutePath = path.toAbsolutePath().normalize();
+
+		try {
+			return archives.compute(absolutePath.toUri().toString(), (key, archive) -> {
+				if (archive == null) {
+					try {
+						archive = Archive.open(key, absolutePath);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}
+
+				archive.references++;
+				return archive;
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	static void release(Archive archive) {
+		archives.computeIfPresent(archive.key, (key, existing) -> {
+			if (existing != archive || --existing.references > 0) {
+				return existing;
+			}
+
+			try {
+				existing.close();
+			} catch (IOException e) {
+				// pass
+			}
+
+			return null;
+		});
+	}
+
+	/**
+	 * @return The number of archives currently open.
+	 */
+	public static int getOpenArchives() {
+		return archives.size();
+	}
+
+	/**
+	 * @return The number of unreleased handles over all open archives.
+	 */
+	public static long getOpenHandles() {
+		long handles = 0;
+
+		for (Archive archive : archives.values()) {
+			handles += archive.references;
+		}
+
+		return handles;
+	}
+
+	/**
+	 * @return The estimated memory retained by the parsed central directories of all open archives, in bytes.
+	 */
+	public static long getDirectoryBytes() {
+		long bytes = 0;
+
+		for (Archive archive : archives.values()) {
+			bytes += archive.getDirectoryBytes();
+		}
+
+		return bytes;
+	}
+}
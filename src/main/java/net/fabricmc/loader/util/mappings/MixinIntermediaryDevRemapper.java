@@ -16,15 +16,66 @@
 
 package net.fabricmc.loader.util.mappings;
 
+import net.fabricmc.loader.util.LoaderMetricsImpl;
 import net.fabricmc.mappings.*;
 import net.fabricmc.mappings.helpers.mixin.MixinMappingsRemapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.spongepowered.asm.mixin.transformer.ClassInfo;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 public class MixinIntermediaryDevRemapper extends MixinMappingsRemapper {
+	protected static Logger LOGGER = LogManager.getFormatterLogger("Fabric|MixinRemapper");
+	private static final int CACHE_SIZE = Integer.parseInt(System.getProperty("fabric.mixinRemapper.cacheSize", "16384"));
+	private static final String[] EMPTY_CHAIN = new String[0];
+
+	/**
+	 * Mutable (owner, name, desc) key. Lookups reuse a per-thread instance, so only
+	 * cache misses allocate a key.
+	 */
+	private static final class MemberKey {
+		private String owner, name, desc;
+		private int hash;
+
+		private MemberKey set(String owner, String name, String desc) {
+			this.owner = owner;
+			this.name = name;
+			this.desc = desc;
+			this.hash = (Objects.hashCode(owner) * 31 + Objects.hashCode(name)) * 31 + Objects.hashCode(desc);
+			return this;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof MemberKey)) {
+				return false;
+			}
+
+			MemberKey key = (MemberKey) other;
+			return hash == key.hash && Objects.equals(name, key.name) && Objects.equals(owner, key.owner) && Objects.equals(desc, key.desc);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
 	private final Set<String> allPossibleClassNames;
 	private final Map<String, Set<String>> nameDescFieldLookup, nameDescMethodLookup;
+	private final Map<MemberKey, String> fieldCache = new ConcurrentHashMap<>();
+	private final Map<MemberKey, String> methodCache = new ConcurrentHashMap<>();
+	// unmapped owner names to try, in lookup order, keyed by the owner passed in by Mixin
+	private final Map<String, String[]> fieldHierarchyCache = new ConcurrentHashMap<>();
+	private final Map<String, String[]> methodHierarchyCache = new ConcurrentHashMap<>();
+	private final ThreadLocal<MemberKey> lookupKey = ThreadLocal.withInitial(MemberKey::new);
+	private final LongAdder cacheHits = new LongAdder();
+	private final LongAdder cacheMisses = new LongAdder();
+	private final LongAdder hierarchyHits = new LongAdder();
+	private final LongAdder hierarchyMisses = new LongAdder();
 
 	private static String getNameDescKey(EntryTriple triple) {
 		return triple.getName() + ";;" + triple.getDesc();
@@ -72,28 +123,145 @@ public class MixinIntermediaryDevRemapper extends MixinMappingsRemapper {
 		throw new RuntimeException(builder.toString());
 	}
 
-	private String mapMethodNameInner(String owner, String name, String desc) {
+	private String mapMethodNameInner(String owner, String name, String desc, String unmappedDesc) {
 		String result = super.mapMethodName(owner, name, desc);
 		if (result.equals(name)) {
 			String otherClass = unmap(owner);
-			return super.mapMethodName(otherClass, name, unmapDesc(desc));
+			return super.mapMethodName(otherClass, name, unmappedDesc);
 		} else {
 			return result;
 		}
 	}
 
-	private String mapFieldNameInner(String owner, String name, String desc) {
+	private String mapFieldNameInner(String owner, String name, String desc, String unmappedDesc) {
 		String result = super.mapFieldName(owner, name, desc);
 		if (result.equals(name)) {
 			String otherClass = unmap(owner);
-			return super.mapFieldName(otherClass, name, unmapDesc(desc));
+			return super.mapFieldName(otherClass, name, unmappedDesc);
 		} else {
 			return result;
 		}
 	}
 
+	private String getCached(Map<MemberKey, String> cache, String owner, String name, String desc) {
+		String result = cache.get(lookupKey.get().set(owner, name, desc));
+
+		if (result != null) {
+			cacheHits.increment();
+		} else {
+			cacheMisses.increment();
+		}
+
+		LoaderMetricsImpl.INSTANCE.onMixinRemapperLookup(result != null);
+
+		return result;
+	}
+
+	private void putCached(Map<MemberKey, String> cache, String owner, String name, String desc, String result) {
+		if (result == null) {
+			return;
+		}
+
+		if (cache.size() >= CACHE_SIZE) {
+			// Mixin resolves its targets in bursts, one class at a time; starting over
+			// is cheaper than tracking recency on every hit.
+			LOGGER.debug("Clearing mixin remapper cache (%s)", getStatistics());
+			cache.clear();
+		}
+
+		cache.put(new MemberKey().set(owner, name, desc), result);
+	}
+
+	private String[] getMethodHierarchy(String owner) {
+		String[] chain = methodHierarchyCache.get(owner);
+		if (chain != null) {
+			hierarchyHits.increment();
+			return chain;
+		}
+
+		hierarchyMisses.increment();
+		ClassInfo info = ClassInfo.forName(owner);
+		if (info == null) {
+			return EMPTY_CHAIN;
+		}
+
+		Set<String> owners = new LinkedHashSet<>();
+		LinkedList<ClassInfo> classInfos = new LinkedList<>();
+		classInfos.add(info);
+
+		while (!classInfos.isEmpty()) {
+			ClassInfo c = classInfos.remove();
+			if (!owners.add(unmap(c.getName()))) {
+				continue;
+			}
+
+			if (!c.getSuperName().startsWith("java/")) {
+				ClassInfo cSuper = c.getSuperClass();
+				if (cSuper != null) {
+					classInfos.add(cSuper);
+				}
+			}
+
+			for (String itf : c.getInterfaces()) {
+				if (itf.startsWith("java/")) {
+					continue;
+				}
+
+				ClassInfo cItf = ClassInfo.forName(itf);
+				if (cItf != null) {
+					classInfos.add(cItf);
+				}
+			}
+		}
+
+		chain = owners.toArray(EMPTY_CHAIN);
+		methodHierarchyCache.put(owner, chain);
+		return chain;
+	}
+
+	private String[] getFieldHierarchy(String owner) {
+		String[] chain = fieldHierarchyCache.get(owner);
+		if (chain != null) {
+			hierarchyHits.increment();
+			return chain;
+		}
+
+		hierarchyMisses.increment();
+		ClassInfo c = ClassInfo.forName(map(owner));
+		if (c == null) {
+			return EMPTY_CHAIN;
+		}
+
+		List<String> owners = new ArrayList<>();
+
+		while (c != null) {
+			owners.add(unmap(c.getName()));
+
+			if (c.getSuperName().startsWith("java/")) {
+				break;
+			}
+
+			c = c.getSuperClass();
+		}
+
+		chain = owners.toArray(EMPTY_CHAIN);
+		fieldHierarchyCache.put(owner, chain);
+		return chain;
+	}
+
 	@Override
 	public String mapMethodName(String owner, String name, String desc) {
+		String result = getCached(methodCache, owner, name, desc);
+
+		if (result == null) {
+			result = mapMethodNameUncached(owner, name, desc);
+			putCached(methodCache, owner, name, desc, result);
+		}
+
+		return result;
+	}
+
+	private String mapMethodNameUncached(String owner, String name, String desc) {
 		// handle unambiguous values early
 		if (owner == null || allPossibleClassNames.contains(owner)) {
 			Set<String> values = nameDescMethodLookup.get(name + ";;" + desc);
@@ -122,33 +290,16 @@ public class MixinIntermediaryDevRemapper extends MixinMappingsRemapper {
 			}
 		}
 
-		LinkedList<ClassInfo> classInfos = new LinkedList<>();
-		classInfos.add(ClassInfo.forName(owner));
-
-		while (!classInfos.isEmpty()) {
-			ClassInfo c = classInfos.remove();
-			String ownerO = unmap(c.getName());
-			String s;
-			if (!(s = mapMethodNameInner(ownerO, name, desc)).equals(name)) {
-				return s;
-			}
+		String unmappedDesc = null;
 
-			if (!c.getSuperName().startsWith("java/")) {
-				ClassInfo cSuper = c.getSuperClass();
-				if (cSuper != null) {
-					classInfos.add(cSuper);
-				}
+		for (String ownerO : getMethodHierarchy(owner)) {
+			if (unmappedDesc == null) {
+				unmappedDesc = unmapDesc(desc);
 			}
 
-			for (String itf : c.getInterfaces()) {
-				if (itf.startsWith("java/")) {
-					continue;
-				}
-
-				ClassInfo cItf = ClassInfo.forName(itf);
-				if (cItf != null) {
-					classInfos.add(cItf);
-				}
+			String s;
+			if (!(s = mapMethodNameInner(ownerO, name, desc, unmappedDesc)).equals(name)) {
+				return s;
 			}
 		}
 
@@ -157,6 +308,17 @@ public class MixinIntermediaryDevRemapper extends MixinMappingsRemapper {
 
 	@Override
 	public String mapFieldName(String owner, String name, String desc) {
+		String result = getCached(fieldCache, owner, name, desc);
+
+		if (result == null) {
+			result = mapFieldNameUncached(owner, name, desc);
+			putCached(fieldCache, owner, name, desc, result);
+		}
+
+		return result;
+	}
+
+	private String mapFieldNameUncached(String owner, String name, String desc) {
 		// handle unambiguous values early
 		if (owner == null || allPossibleClassNames.contains(owner)) {
 			Set<String> values = nameDescFieldLookup.get(name + ";;" + desc);
@@ -185,22 +347,45 @@ public class MixinIntermediaryDevRemapper extends MixinMappingsRemapper {
 			}
 		}
 
-		ClassInfo c = ClassInfo.forName(map(owner));
+		String unmappedDesc = null;
 
-		while (c != null) {
-			String nextOwner = unmap(c.getName());
-			String s;
-			if (!(s = mapFieldNameInner(nextOwner, name, desc)).equals(name)) {
-				return s;
+		for (String nextOwner : getFieldHierarchy(owner)) {
+			if (unmappedDesc == null) {
+				unmappedDesc = unmapDesc(desc);
 			}
 
-			if (c.getSuperName().startsWith("java/")) {
-				break;
+			String s;
+			if (!(s = mapFieldNameInner(nextOwner, name, desc, unmappedDesc)).equals(name)) {
+				return s;
 			}
-
-			c = c.getSuperClass();
 		}
 
 		return name;
 	}
+
+	public long getCacheHits() {
+		return cacheHits.sum();
+	}
+
+	public long getCacheMisses() {
+		return cacheMisses.sum();
+	}
+
+	public long getHierarchyCacheHits() {
+		return hierarchyHits.sum();
+	}
+
+	public long getHierarchyCacheMisses() {
+		return hierarchyMisses.sum();
+	}
+
+	public String getStatistics() {
+		return String.format("member lookups: %d hits / %d misses (%.1f%%), hierarchy lookups: %d hits / %d misses (%.1f%%)",
+			getCacheHits(), getCacheMisses(), getHitRate(getCacheHits(), getCacheMisses()),
+			getHierarchyCacheHits(), getHierarchyCacheMisses(), getHitRate(getHierarchyCacheHits(), getHierarchyCacheMisses()));
+	}
+
+	private static double getHitRate(long hits, long misses) {
+		return hits + misses == 0 ? 0 : 100.0 * hits / (hits + misses);
+	}
 }
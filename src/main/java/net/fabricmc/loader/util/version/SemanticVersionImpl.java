@@ -21,80 +21,173 @@ import net.fabricmc.loader.api.SemanticVersion;
 import java.util.Arrays;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.regex.Pattern;
 
 public class SemanticVersionImpl implements SemanticVersion {
-	private static final Pattern DOT_SEPARATED_ID = Pattern.compile("^[-0-9A-Za-z]+(\\.[-0-9A-Za-z]+)*$");
 	private final int[] components;
 	private final String prerelease;
 	private final String build;
-	private String friendlyName;
+	private final String friendlyName;
 
 	public SemanticVersionImpl(String version, boolean storeX) throws VersionParsingException {
-		int buildDelimPos = version.indexOf('+');
-		if (buildDelimPos >= 0) {
-			build = version.substring(buildDelimPos + 1);
-			version = version.substring(0, buildDelimPos);
-		} else {
-			build = null;
+		SemanticVersionImpl parsed = parse(version, storeX, true);
+		this.components = parsed.components;
+		this.prerelease = parsed.prerelease;
+		this.build = parsed.build;
+		this.friendlyName = parsed.friendlyName;
+	}
+
+	private SemanticVersionImpl(int[] components, String prerelease, String build, String friendlyName) {
+		this.components = components;
+		this.prerelease = prerelease;
+		this.build = build;
+		this.friendlyName = friendlyName;
+	}
+
+	/**
+	 * @return The parsed version, or null if the string is not a valid semantic version.
+	 */
+	public static SemanticVersionImpl tryParse(String version, boolean storeX) {
+		try {
+			return parse(version, storeX, false);
+		} catch (VersionParsingException e) {
+			throw new IllegalStateException(e); // unreachable, errors are only thrown if requested
 		}
+	}
 
+	/**
+	 * Parses in a single pass over the string, without regular expressions or splitting.
+	 * On invalid input, this either throws or returns null, as requested by {@code throwErrors}.
+	 */
+	private static SemanticVersionImpl parse(String version, boolean storeX, boolean throwErrors) throws VersionParsingException {
+		int length = version.length();
+		int buildDelimPos = version.indexOf('+');
+		int coreEnd = buildDelimPos >= 0 ? buildDelimPos : length;
 		int dashDelimPos = version.indexOf('-');
-		if (dashDelimPos >= 0) {
-			prerelease = version.substring(dashDelimPos + 1);
-			version = version.substring(0, dashDelimPos);
-		} else {
-			prerelease = null;
+		if (dashDelimPos >= coreEnd) {
+			dashDelimPos = -1;
 		}
 
-		if (prerelease != null && !DOT_SEPARATED_ID.matcher(prerelease).matches()) {
-			throw new VersionParsingException("Invalid prerelease string '" + prerelease + "'!");
-		}
+		String prerelease = null;
+		String build = null;
 
-		if (build != null && !DOT_SEPARATED_ID.matcher(build).matches()) {
-			throw new VersionParsingException("Invalid build string '" + build + "'!");
+		if (dashDelimPos >= 0) {
+			if (!isDotSeparatedId(version, dashDelimPos + 1, coreEnd)) {
+				return fail(throwErrors, "Invalid prerelease string '" + version.substring(dashDelimPos + 1, coreEnd) + "'!");
+			}
+
+			prerelease = version.substring(dashDelimPos + 1, coreEnd);
 		}
 
-		if (version.endsWith(".")) {
-			throw new VersionParsingException("Negative version number component found!");
-		} else if (version.startsWith(".")) {
-			throw new VersionParsingException("Missing version component!");
+		if (buildDelimPos >= 0) {
+			if (!isDotSeparatedId(version, buildDelimPos + 1, length)) {
+				return fail(throwErrors, "Invalid build string '" + version.substring(buildDelimPos + 1) + "'!");
+			}
+
+			build = version.substring(buildDelimPos + 1);
 		}
 
-		String[] componentStrings = version.split("\\.");
-		if (componentStrings.length < 1) {
-			throw new VersionParsingException("Did not provide version numbers!");
+		int end = dashDelimPos >= 0 ? dashDelimPos : coreEnd;
+		if (end > 0 && version.charAt(end - 1) == '.') {
+			return fail(throwErrors, "Negative version number component found!");
+		} else if (end > 0 && version.charAt(0) == '.') {
+			return fail(throwErrors, "Missing version component!");
 		}
 
-		components = new int[componentStrings.length];
-		for (int i = 0; i < componentStrings.length; i++) {
-			if (storeX && (componentStrings[i].equals("x") || componentStrings[i].equals("X") || componentStrings[i].equals("*"))) {
-				components[i] = Integer.MIN_VALUE;
-				continue;
+		int componentCount = 1;
+		for (int i = 0; i < end; i++) {
+			if (version.charAt(i) == '.') {
+				componentCount++;
 			}
+		}
+
+		int[] components = new int[componentCount];
+		// The friendly string equals the input unless a component is written unusually, f.e. "01" or "X"
+		boolean canonical = true;
+		int start = 0;
 
-			if (componentStrings[i].trim().isEmpty()) {
-				throw new VersionParsingException("Missing version number component!");
+		for (int c = 0; c < componentCount; c++) {
+			int componentEnd = version.indexOf('.', start);
+			if (componentEnd < 0 || componentEnd > end) {
+				componentEnd = end;
 			}
 
-			try {
-				components[i] = Integer.parseInt(componentStrings[i]);
-				if (components[i] < 0) {
-					throw new VersionParsingException("Negative version number component '" + componentStrings[i] + "'!");
+			if (storeX && componentEnd - start == 1 && isX(version.charAt(start))) {
+				components[c] = Integer.MIN_VALUE;
+				canonical &= version.charAt(start) == 'x';
+			} else if (isBlank(version, start, componentEnd)) {
+				return fail(throwErrors, "Missing version number component!");
+			} else {
+				long value = 0;
+
+				for (int i = start; i < componentEnd; i++) {
+					char ch = version.charAt(i);
+					if (ch < '0' || ch > '9' || (value = value * 10 + (ch - '0')) > Integer.MAX_VALUE) {
+						return fail(throwErrors, "Could not parse version number component '" + version.substring(start, componentEnd) + "'!");
+					}
 				}
-			} catch (NumberFormatException e) {
-				throw new VersionParsingException("Could not parse version number component '" + componentStrings[i] + "'!", e);
+
+				components[c] = (int) value;
+				canonical &= componentEnd - start == 1 || version.charAt(start) != '0';
+			}
+
+			start = componentEnd + 1;
+		}
+
+		if (storeX && componentCount == 1 && components[0] == Integer.MIN_VALUE) {
+			return fail(throwErrors, "Versions of form 'x' or 'X' not allowed!");
+		}
+
+		return new SemanticVersionImpl(components, prerelease, build, canonical ? version : buildFriendlyName(components, prerelease, build));
+	}
+
+	private static SemanticVersionImpl fail(boolean throwErrors, String message) throws VersionParsingException {
+		if (throwErrors) {
+			throw new VersionParsingException(message);
+		}
+
+		return null;
+	}
+
+	private static boolean isX(char c) {
+		return c == 'x' || c == 'X' || c == '*';
+	}
+
+	private static boolean isBlank(String s, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (s.charAt(i) > ' ') {
+				return false;
 			}
 		}
 
-		if (storeX && components.length == 1 && components[0] == Integer.MIN_VALUE) {
-			throw new VersionParsingException("Versions of form 'x' or 'X' not allowed!");
+		return true;
+	}
+
+	/**
+	 * Matches {@code [-0-9A-Za-z]+(\.[-0-9A-Za-z]+)*} against a part of the string.
+	 */
+	private static boolean isDotSeparatedId(String s, int start, int end) {
+		boolean expectId = true;
+
+		for (int i = start; i < end; i++) {
+			char c = s.charAt(i);
+
+			if (c == '.') {
+				if (expectId) {
+					return false;
+				}
+
+				expectId = true;
+			} else if (c == '-' || (c >= '0' && c <= '9') || (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z')) {
+				expectId = false;
+			} else {
+				return false;
+			}
 		}
 
-		buildFriendlyName();
+		return !expectId;
 	}
 
-	private void buildFriendlyName() {
+	private static String buildFriendlyName(int[] components, String prerelease, String build) {
 		StringBuilder fnBuilder = new StringBuilder();
 		boolean first = true;
 
@@ -120,7 +213,7 @@ public class SemanticVersionImpl implements SemanticVersion {
 			fnBuilder.append('+').append(build);
 		}
 
-		friendlyName = fnBuilder.toString();
+		return fnBuilder.toString();
 	}
 
 	@Override
@@ -155,9 +248,48 @@ public class SemanticVersionImpl implements SemanticVersion {
 		return friendlyName;
 	}
 
+	/**
+	 * Same order as {@link SemanticVersion#compareTo}, but reads the components directly.
+	 * Interned versions compare equal by identity.
+	 */
+	@Override
+	public int compareTo(SemanticVersion o) {
+		if (o == this) {
+			return 0;
+		} else if (!(o instanceof SemanticVersionImpl)) {
+			return SemanticVersion.super.compareTo(o);
+		}
+
+		SemanticVersionImpl other = (SemanticVersionImpl) o;
+		for (int i = 0; i < Math.max(components.length, other.components.length); i++) {
+			int first = getVersionComponent(i);
+			int second = other.getVersionComponent(i);
+			if (first == COMPONENT_WILDCARD || second == COMPONENT_WILDCARD) {
+				continue;
+			}
+
+			int compare = Integer.compare(first, second);
+			if (compare != 0) {
+				return compare;
+			}
+		}
+
+		if (prerelease != null || other.prerelease != null) {
+			if (prerelease != null && other.prerelease != null) {
+				return prerelease.compareTo(other.prerelease);
+			} else {
+				return prerelease != null ? -1 : 1;
+			}
+		} else {
+			return 0;
+		}
+	}
+
 	@Override
 	public boolean equals(Object o) {
-		if (!(o instanceof SemanticVersionImpl)) {
+		if (o == this) {
+			return true;
+		} else if (!(o instanceof SemanticVersionImpl)) {
 			return false;
 		} else {
 			SemanticVersionImpl other = (SemanticVersionImpl) o;
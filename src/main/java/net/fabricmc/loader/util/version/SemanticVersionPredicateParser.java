@@ -20,13 +20,36 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
 public final class SemanticVersionPredicateParser {
 	private static final Map<String, Function<SemanticVersionImpl, Predicate<SemanticVersionImpl>>> PREFIXES;
 
+	/** Predicates are immutable, and the same few ranges are matched over and over during resolution. */
+	private static final Map<String, Predicate<SemanticVersionImpl>> CACHE = new ConcurrentHashMap<>();
+
 	public static Predicate<SemanticVersionImpl> create(String text) throws VersionParsingException {
+		Predicate<SemanticVersionImpl> predicate = CACHE.get(text);
+		if (predicate == null) {
+			predicate = parse(text);
+			CACHE.put(text, predicate);
+		}
+
+		return predicate;
+	}
+
+	/**
+	 * @return The number of cached predicates dropped.
+	 */
+	public static int clearCache() {
+		int size = CACHE.size();
+		CACHE.clear();
+		return size;
+	}
+
+	private static Predicate<SemanticVersionImpl> parse(String text) throws VersionParsingException {
 		List<Predicate<SemanticVersionImpl>> predicateList = new ArrayList<>();
 		List<SemanticVersionImpl> prereleaseVersions = new ArrayList<>();
 
@@ -45,7 +68,7 @@ public final class SemanticVersionPredicateParser {
 				}
 			}
 
-			SemanticVersionImpl version = new SemanticVersionImpl(s, true);
+			SemanticVersionImpl version = VersionDeserializer.deserializePredicateVersion(s);
 			if (version.isPrerelease()) {
 				if (version.hasXRanges()) {
 					throw new VersionParsingException("Pre-release versions are not allowed to use X-ranges!");
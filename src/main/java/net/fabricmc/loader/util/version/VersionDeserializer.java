@@ -22,15 +22,34 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonParseException;
 import net.fabricmc.loader.api.SemanticVersion;
 import net.fabricmc.loader.api.Version;
+import net.fabricmc.loader.util.Interner;
 
 import java.lang.reflect.Type;
 
 public class VersionDeserializer implements JsonDeserializer<Version> {
+	/** Versions are immutable, so identical strings across mods, dependencies and predicates share one instance. */
+	private static final Interner<String, Version> VERSIONS = new Interner<>();
+
+	/**
+	 * @return The number of interned versions dropped.
+	 */
+	public static int clearCache() {
+		int size = VERSIONS.size();
+		VERSIONS.clear();
+		return size;
+	}
+
 	public static SemanticVersion deserializeSemantic(String s) throws VersionParsingException {
 		if (s == null || s.isEmpty()) {
 			throw new VersionParsingException("Version must be a non-empty string!");
 		}
 
+		Version version = deserialize(s);
+		if (version instanceof SemanticVersion) {
+			return (SemanticVersion) version;
+		}
+
+		// Parse again to report why the string is not a semantic version
 		return new SemanticVersionImpl(s, false);
 	}
 
@@ -39,15 +58,37 @@ public class VersionDeserializer implements JsonDeserializer<Version> {
 			throw new VersionParsingException("Version must be a non-empty string!");
 		}
 
-		Version version;
+		return VERSIONS.intern(s, (key) -> {
+			SemanticVersionImpl version = SemanticVersionImpl.tryParse(key, false);
+			return version != null ? version : new StringVersion(key);
+		});
+	}
+
+	/**
+	 * Parses a version inside a version predicate, which may use X-ranges. Versions without
+	 * them are shared with the ones parsed for mods, while possible X-ranges are parsed
+	 * directly so that they don't leave unused versions in the shared table.
+	 */
+	static SemanticVersionImpl deserializePredicateVersion(String s) throws VersionParsingException {
+		if (!s.isEmpty() && !mayContainX(s)) {
+			Version version = deserialize(s);
+			if (version instanceof SemanticVersionImpl) {
+				return (SemanticVersionImpl) version;
+			}
+		}
+
+		return new SemanticVersionImpl(s, true);
+	}
 
-		try {
-			version = new SemanticVersionImpl(s, false);
-		} catch (VersionParsingException e) {
-			version = new StringVersion(s);
+	private static boolean mayContainX(String s) {
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c == 'x' || c == 'X' || c == '*') {
+				return true;
+			}
 		}
 
-		return version;
+		return false;
 	}
 
 	@Override